@@ -0,0 +1,244 @@
+package org.apache.fulcrum.json;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Asynchronous facade of a {@link JsonService}. Each method runs the
+ * corresponding {@link JsonService} method on the executor and returns a
+ * {@link CompletableFuture}, which completes exceptionally with the exception
+ * of the service, wrapped in a {@link CompletionException}.
+ *
+ * @author gk
+ * @version $Id$
+ */
+public class AsyncJsonService {
+
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	private final JsonService service;
+
+	private final Executor executor;
+
+	/**
+	 * @param service  the service doing the (de)serialization
+	 * @param executor the executor running the calls
+	 */
+	public AsyncJsonService(JsonService service, Executor executor) {
+		this.service = service;
+		this.executor = executor;
+	}
+
+	/**
+	 * @see JsonService#ser(Object)
+	 *
+	 * @param src the java object to be serialized, not null.
+	 * @return the future JSON string
+	 */
+	public CompletableFuture<String> serAsync(Object src) {
+		return supply(() -> service.ser(src));
+	}
+
+	/**
+	 * @see JsonService#ser(Object, Class)
+	 *
+	 * @param src  the java object to be serialized, not null.
+	 * @param type the Java Type, which should be used for the provided object
+	 * @param <T>  the class type
+	 * @return the future JSON string
+	 */
+	public <T> CompletableFuture<String> serAsync(Object src, Class<T> type) {
+		return supply(() -> service.ser(src, type));
+	}
+
+	/**
+	 * @see JsonService#deSer(String, Class)
+	 *
+	 * @param src  the JSON string
+	 * @param type the Java Type to be used as a class
+	 * @param <T>  the class type
+	 * @return the future Java object
+	 */
+	public <T> CompletableFuture<T> deSerAsync(String src, Class<T> type) {
+		return supply(() -> service.deSer(src, type));
+	}
+
+	/**
+	 * @see JsonService#deSerCollection(String, Object, Class)
+	 *
+	 * @param json           the JSON string
+	 * @param collectionType the collection type
+	 * @param elementType    the element type
+	 * @param <T>            the element type
+	 * @return the future collection
+	 */
+	public <T> CompletableFuture<Collection<T>> deSerCollectionAsync(String json, Object collectionType,
+			Class<T> elementType) {
+		return supply(() -> service.deSerCollection(json, collectionType, elementType));
+	}
+
+	/**
+	 * Splits the payloads into chunks, which are deserialized in parallel on the
+	 * executor. A failing element does not stop the others, its exception is
+	 * reported in the result.
+	 *
+	 * @param payloads the JSON payloads, each a {@link String} or a UTF-8 encoded
+	 *                 byte array
+	 * @param type     the Java Type to be used as a class
+	 * @param <T>      the class type
+	 * @return the future result in the order of the payloads
+	 */
+	public <T> CompletableFuture<BatchResult<T>> deSerAllAsync(Collection<?> payloads, Class<T> type) {
+		Object[] inputs = payloads.toArray();
+		@SuppressWarnings("unchecked")
+		T[] values = (T[]) new Object[inputs.length];
+		Exception[] errors = new Exception[inputs.length];
+		int chunkSize = chunkSize(inputs.length);
+		List<CompletableFuture<Void>> chunks = new ArrayList<>();
+		for (int start = 0; start < inputs.length; start += chunkSize) {
+			int from = start;
+			int to = Math.min(start + chunkSize, inputs.length);
+			chunks.add(CompletableFuture.runAsync(() -> deSer(inputs, values, errors, from, to, type), executor));
+		}
+		return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]))
+				.thenApply(done -> new BatchResult<>(values, errors));
+	}
+
+	/**
+	 * Waits for {@link #deSerAllAsync(Collection, Class)}. If called by a thread
+	 * of the executor, the payloads are deserialized by the calling thread
+	 * instead, as the chunks could wait in the queue of a bounded executor behind
+	 * the caller. This is detected for the executors of {@link JsonExecutors},
+	 * other bounded executors should not call this method from their threads.
+	 * 
+	 * @param payloads the JSON payloads, each a {@link String} or a UTF-8 encoded
+	 *                 byte array
+	 * @param type     the Java Type to be used as a class
+	 * @param <T>      the class type
+	 * @return the result in the order of the payloads
+	 */
+	public <T> BatchResult<T> deSerAll(Collection<?> payloads, Class<T> type) {
+		if (!JsonExecutors.isExecutorThread(executor)) {
+			return deSerAllAsync(payloads, type).join();
+		}
+		Object[] inputs = payloads.toArray();
+		@SuppressWarnings("unchecked")
+		T[] values = (T[]) new Object[inputs.length];
+		Exception[] errors = new Exception[inputs.length];
+		deSer(inputs, values, errors, 0, inputs.length, type);
+		return new BatchResult<>(values, errors);
+	}
+
+	/**
+	 * @see JsonService#serializeOnlyFilter(Object, Class, Boolean, String...)
+	 *
+	 * @param src         the java object to be serialized, not null.
+	 * @param filterClass the class to be filtered
+	 * @param cleanFilter if <code>true</code> the filter is not cached
+	 * @param filterAttr  the properties to be serialized
+	 * @param <T>         the class type
+	 * @return the future JSON string
+	 */
+	public <T> CompletableFuture<String> serializeOnlyFilterAsync(Object src, Class<T> filterClass,
+			Boolean cleanFilter, String... filterAttr) {
+		return supply(() -> service.serializeOnlyFilter(src, filterClass, cleanFilter, filterAttr));
+	}
+
+	/**
+	 * @see JsonService#serializeAllExceptFilter(Object, Class, Boolean, String...)
+	 *
+	 * @param src         the java object to be serialized, not null.
+	 * @param filterClass the class to be filtered
+	 * @param cleanFilter if <code>true</code> the filter is not cached
+	 * @param filterAttr  the properties not to be serialized
+	 * @param <T>         the class type
+	 * @return the future JSON string
+	 */
+	public <T> CompletableFuture<String> serializeAllExceptFilterAsync(Object src, Class<T> filterClass,
+			Boolean cleanFilter, String... filterAttr) {
+		return supply(() -> service.serializeAllExceptFilter(src, filterClass, cleanFilter, filterAttr));
+	}
+
+	/**
+	 * @return the service doing the (de)serialization
+	 */
+	public JsonService getService() {
+		return service;
+	}
+
+	/**
+	 * @return the executor running the calls
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	private <T> void deSer(Object[] inputs, T[] values, Exception[] errors, int from, int to, Class<T> type) {
+		for (int i = from; i < to; i++) {
+			try {
+				values[i] = deSer(inputs[i], type);
+			} catch (Exception e) {
+				errors[i] = e;
+			}
+		}
+	}
+
+	private <T> T deSer(Object payload, Class<T> type) throws Exception {
+		if (payload instanceof String) {
+			return service.deSer((String) payload, type);
+		} else if (payload instanceof byte[]) {
+			byte[] bytes = (byte[]) payload;
+			return service.deSer(bytes, 0, bytes.length, type);
+		}
+		throw new IllegalArgumentException(
+				"Expected a String or byte array: " + ((payload != null) ? payload.getClass() : null));
+	}
+
+	/**
+	 * @param size the number of elements
+	 * @return the number of elements per task, to get some tasks per thread
+	 */
+	private int chunkSize(int size) {
+		int parallelism = (executor instanceof ForkJoinPool) ? ((ForkJoinPool) executor).getParallelism()
+				: Runtime.getRuntime().availableProcessors();
+		int chunks = parallelism * CHUNKS_PER_THREAD;
+		return Math.max(1, (size + chunks - 1) / chunks);
+	}
+
+	private <R> CompletableFuture<R> supply(Callable<R> call) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return call.call();
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		}, executor);
+	}
+}
@@ -0,0 +1,105 @@
+package org.apache.fulcrum.json;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The results of a batch of deserializations in the order of the input. If an
+ * element failed, its value is <code>null</code> and the exception is reported
+ * for its index.
+ *
+ * @author gk
+ * @version $Id$
+ *
+ * @param <T> the type of the values
+ */
+public class BatchResult<T> {
+
+	private final List<T> values;
+
+	private final Map<Integer, Exception> errors;
+
+	/**
+	 * @param values the values, null for failed elements
+	 * @param errors the exceptions by index, may contain nulls for successful
+	 *               elements
+	 */
+	public BatchResult(T[] values, Exception[] errors) {
+		this.values = Collections.unmodifiableList(Arrays.asList(values));
+		Map<Integer, Exception> failed = new TreeMap<>();
+		for (int i = 0; i < errors.length; i++) {
+			if (errors[i] != null) {
+				failed.put(i, errors[i]);
+			}
+		}
+		this.errors = Collections.unmodifiableMap(failed);
+	}
+
+	/**
+	 * @return the values in input order, <code>null</code> for failed elements
+	 */
+	public List<T> getValues() {
+		return values;
+	}
+
+	/**
+	 * @return the exceptions of the failed elements by index in ascending order
+	 */
+	public Map<Integer, Exception> getErrors() {
+		return errors;
+	}
+
+	/**
+	 * @return <code>true</code> if any element failed
+	 */
+	public boolean hasErrors() {
+		return !errors.isEmpty();
+	}
+
+	/**
+	 * @param index the index of the element
+	 * @return the value of the element
+	 * @throws Exception the exception of the element, if it failed
+	 */
+	public T get(int index) throws Exception {
+		Exception error = errors.get(index);
+		if (error != null) {
+			throw error;
+		}
+		return values.get(index);
+	}
+
+	/**
+	 * @return the number of elements
+	 */
+	public int size() {
+		return values.size();
+	}
+
+	@Override
+	public String toString() {
+		return "BatchResult [size=" + values.size() + ", errors=" + errors.keySet() + "]";
+	}
+}
@@ -0,0 +1,84 @@
+package org.apache.fulcrum.json;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An iterator over elements, which are deserialized one at a time, e.g. from a
+ * JSON array. Closing the iterator releases the parser and closes the source.
+ *
+ * @author gk
+ * @version $Id$
+ *
+ * @param <T> the element type
+ */
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+
+	/**
+	 * @return a sequential stream of the remaining elements, closing the stream
+	 *         closes this iterator
+	 */
+	default Stream<T> stream() {
+		return StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+				.onClose(() -> {
+					try {
+						close();
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+	}
+
+	/**
+	 * @param iterator the iterator
+	 * @param resource the resource closed with the iterator, may be null
+	 * @param <T>      the element type
+	 * @return the closeable iterator
+	 */
+	static <T> CloseableIterator<T> of(Iterator<T> iterator, Closeable resource) {
+		return new CloseableIterator<T>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public T next() {
+				return iterator.next();
+			}
+
+			@Override
+			public void close() throws IOException {
+				if (resource != null) {
+					resource.close();
+				}
+			}
+		};
+	}
+}
@@ -0,0 +1,160 @@
+package org.apache.fulcrum.json;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.avalon.framework.configuration.Configuration;
+import org.apache.avalon.framework.configuration.ConfigurationException;
+
+/**
+ * Creates the executor of the {@link AsyncJsonService} from the component
+ * configuration, e.g.
+ *
+ * <pre>
+ * &lt;executor type="bounded" threads="8" queueSize="1000"/&gt;
+ * </pre>
+ *
+ * The type is one of
+ * <ul>
+ * <li><code>common</code> (default): the common {@link ForkJoinPool},</li>
+ * <li><code>forkjoin</code>: a new {@link ForkJoinPool} with the number of
+ * threads (default: available processors),</li>
+ * <li><code>bounded</code>: a fixed number of daemon threads and a bounded
+ * queue, if it is full the caller runs the task,</li>
+ * <li><code>virtual</code>: a virtual thread per task, requires Java 21 or
+ * later.</li>
+ * </ul>
+ *
+ * @author gk
+ * @version $Id$
+ */
+public final class JsonExecutors {
+
+	/** Component configuration element */
+	public static final String EXECUTOR = "executor";
+
+	public static final String COMMON = "common";
+
+	public static final String FORK_JOIN = "forkjoin";
+
+	public static final String BOUNDED = "bounded";
+
+	public static final String VIRTUAL = "virtual";
+
+	public static final int DEFAULT_QUEUE_SIZE = 1000;
+
+	private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+	// the bounded executor, which created the current thread
+	private static final ThreadLocal<Executor> BOUNDED_POOL = new ThreadLocal<>();
+
+	private JsonExecutors() {
+	}
+
+	/**
+	 * @param executor the {@link #EXECUTOR} element of the component
+	 *                 configuration, may be null
+	 * @return the configured executor, the common pool if none is configured
+	 * @throws ConfigurationException if the type is unknown or not supported by
+	 *                                the runtime
+	 */
+	public static Executor fromConfiguration(Configuration executor) throws ConfigurationException {
+		if (executor == null) {
+			return ForkJoinPool.commonPool();
+		}
+		String type = executor.getAttribute("type", COMMON);
+		int threads = executor.getAttributeAsInteger("threads", Runtime.getRuntime().availableProcessors());
+		if (COMMON.equals(type)) {
+			return ForkJoinPool.commonPool();
+		} else if (FORK_JOIN.equals(type)) {
+			return new ForkJoinPool(threads);
+		} else if (BOUNDED.equals(type)) {
+			return bounded(threads, executor.getAttributeAsInteger("queueSize", DEFAULT_QUEUE_SIZE));
+		} else if (VIRTUAL.equals(type)) {
+			try {
+				return (Executor) java.util.concurrent.Executors.class
+						.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			} catch (ReflectiveOperationException e) {
+				throw new ConfigurationException("Virtual threads are not supported by this Java runtime",
+						executor, e);
+			}
+		}
+		throw new ConfigurationException("Unknown executor type: " + type, executor);
+	}
+
+	/**
+	 * @param threads   the number of threads
+	 * @param queueSize the maximum number of waiting tasks
+	 * @return the executor, the caller runs the task, if the queue is full
+	 */
+	public static ExecutorService bounded(int threads, int queueSize) {
+		String prefix = "json-async-" + POOL_NUMBER.incrementAndGet() + "-";
+		AtomicInteger threadNumber = new AtomicInteger();
+		// threads are started after the executor is set
+		AtomicReference<Executor> pool = new AtomicReference<>();
+		ThreadFactory factory = r -> {
+			Thread thread = new Thread(() -> {
+				BOUNDED_POOL.set(pool.get());
+				r.run();
+			}, prefix + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueSize), factory, new ThreadPoolExecutor.CallerRunsPolicy());
+		pool.set(executor);
+		return executor;
+	}
+
+	/**
+	 * @param executor the executor
+	 * @return <code>true</code> if the current thread is a worker of the
+	 *         executor, which is a {@link ForkJoinPool} or created by
+	 *         {@link #bounded(int, int)}
+	 */
+	public static boolean isExecutorThread(Executor executor) {
+		Thread current = Thread.currentThread();
+		if (current instanceof ForkJoinWorkerThread) {
+			return ((ForkJoinWorkerThread) current).getPool() == executor;
+		}
+		return executor != null && BOUNDED_POOL.get() == executor;
+	}
+
+	/**
+	 * Shuts down the executor, unless it is the common pool.
+	 *
+	 * @param executor the executor
+	 */
+	public static void shutdown(Executor executor) {
+		if (executor instanceof ExecutorService && executor != ForkJoinPool.commonPool()) {
+			((ExecutorService) executor).shutdown();
+		}
+	}
+}
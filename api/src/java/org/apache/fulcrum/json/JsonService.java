@@ -19,8 +19,24 @@ package org.apache.fulcrum.json;
  * under the License.
  */
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 /**
  * This class defines custom methods needed to serialize and deserialize and
@@ -32,6 +48,14 @@ import java.util.Collection;
  * provide strings (e.g. velocity context), just wrap the method and call
  * <code>Class clazz = Class.forName(className);</code> for the parameter.
  * 
+ * The methods with an {@link OutputStream} or {@link Writer} parameter write
+ * the JSON to the target (an output stream in UTF-8) and do not close it. The
+ * default implementations write the JSON string, implementations should
+ * override them to stream without the intermediate string. Likewise the
+ * methods deserializing an {@link InputStream}, {@link Reader}, byte array or
+ * {@link ByteBuffer} (UTF-8) do not close the source and by default decode it
+ * to a string first.
+ * 
  * 
  * @author <a href="mailto:gk@apache.org">Georg Kallidis</a>
  * @version $Id$
@@ -90,6 +114,78 @@ public interface JsonService {
 	 */
 	<T> String ser(Object src, Class<T> type, Boolean cleanCache) throws Exception;
 
+	/**
+	 * Serializes a Java object to an output stream in UTF-8.
+	 * 
+	 * @param out the output stream, which is flushed, but not closed
+	 * @param src the java object to be serialized, not null.
+	 * 
+	 * @throws Exception if JSON serialization or writing fails
+	 */
+	default void ser(OutputStream out, Object src) throws Exception {
+		String json = ser(src);
+		if (json != null) {
+			out.write(json.getBytes(StandardCharsets.UTF_8));
+			out.flush();
+		}
+	}
+
+	/**
+	 * Serializes a Java object to a writer.
+	 * 
+	 * @param writer the writer, which is flushed, but not closed
+	 * @param src    the java object to be serialized, not null.
+	 * 
+	 * @throws Exception if JSON serialization or writing fails
+	 */
+	default void ser(Writer writer, Object src) throws Exception {
+		String json = ser(src);
+		if (json != null) {
+			writer.write(json);
+			writer.flush();
+		}
+	}
+
+	/**
+	 * Serializes a Java object to an output stream in UTF-8.
+	 * 
+	 * @see #ser(Object, Class)
+	 * 
+	 * @param out  the output stream, which is flushed, but not closed
+	 * @param src  the java object to be serialized
+	 * @param type the Java Type, which should be used for the provided object
+	 * @param <T>  The class type
+	 * 
+	 * @throws Exception if JSON serialization or writing fails
+	 */
+	default <T> void ser(OutputStream out, Object src, Class<T> type) throws Exception {
+		String json = ser(src, type);
+		if (json != null) {
+			out.write(json.getBytes(StandardCharsets.UTF_8));
+			out.flush();
+		}
+	}
+
+	/**
+	 * Serializes a Java object to a writer.
+	 * 
+	 * @see #ser(Object, Class)
+	 * 
+	 * @param writer the writer, which is flushed, but not closed
+	 * @param src    the java object to be serialized
+	 * @param type   the Java Type, which should be used for the provided object
+	 * @param <T>    The class type
+	 * 
+	 * @throws Exception if JSON serialization or writing fails
+	 */
+	default <T> void ser(Writer writer, Object src, Class<T> type) throws Exception {
+		String json = ser(src, type);
+		if (json != null) {
+			writer.write(json);
+			writer.flush();
+		}
+	}
+
 	/**
 	 * Deserializing a JSON string
 	 * 
@@ -120,6 +216,335 @@ public interface JsonService {
 	 */
 	<T> Collection<T> deSerCollection(String json, Object collectionType, Class<T> elementType) throws Exception;
 
+	/**
+	 * Deserializing JSON from a stream in UTF-8.
+	 * 
+	 * @see #deSer(String, Class)
+	 * 
+	 * @param src  the stream, which is not closed
+	 * @param type the Java Type to be used as a class
+	 * @param <T>  class type of the object
+	 * @return the Java Object
+	 * 
+	 * @throws Exception if reading or JSON deserialization fails
+	 */
+	default <T> T deSer(InputStream src, Class<T> type) throws Exception {
+		return deSer(new InputStreamReader(src, StandardCharsets.UTF_8), type);
+	}
+
+	/**
+	 * Deserializing JSON from a reader.
+	 * 
+	 * @see #deSer(String, Class)
+	 * 
+	 * @param src  the reader, which is not closed
+	 * @param type the Java Type to be used as a class
+	 * @param <T>  class type of the object
+	 * @return the Java Object
+	 * 
+	 * @throws Exception if reading or JSON deserialization fails
+	 */
+	default <T> T deSer(Reader src, Class<T> type) throws Exception {
+		return deSer(read(src), type);
+	}
+
+	/**
+	 * Deserializing JSON from bytes in UTF-8.
+	 * 
+	 * @see #deSer(String, Class)
+	 * 
+	 * @param src    the bytes
+	 * @param offset the offset of the JSON in the array
+	 * @param len    the length of the JSON in bytes
+	 * @param type   the Java Type to be used as a class
+	 * @param <T>    class type of the object
+	 * @return the Java Object
+	 * 
+	 * @throws Exception if JSON deserialization fails
+	 */
+	default <T> T deSer(byte[] src, int offset, int len, Class<T> type) throws Exception {
+		return deSer(new String(src, offset, len, StandardCharsets.UTF_8), type);
+	}
+
+	/**
+	 * Deserializing JSON from the remaining bytes of a buffer in UTF-8. The
+	 * position of the buffer is not changed.
+	 * 
+	 * @see #deSer(String, Class)
+	 * 
+	 * @param src  the buffer
+	 * @param type the Java Type to be used as a class
+	 * @param <T>  class type of the object
+	 * @return the Java Object
+	 * 
+	 * @throws Exception if JSON deserialization fails
+	 */
+	default <T> T deSer(ByteBuffer src, Class<T> type) throws Exception {
+		return deSer(StandardCharsets.UTF_8.decode(src.duplicate()).toString(), type);
+	}
+
+	/**
+	 * Deserializing a JSON collection from a stream in UTF-8.
+	 * 
+	 * @see #deSerCollection(String, Object, Class)
+	 * 
+	 * @param src            the stream, which is not closed
+	 * @param collectionType the collection or the typed collection
+	 * @param elementType    the element type
+	 * @param <T>            class type of the elements
+	 * @return the generated Java Collection.
+	 * @throws Exception if reading or JSON deserialization fails
+	 */
+	default <T> Collection<T> deSerCollection(InputStream src, Object collectionType, Class<T> elementType)
+			throws Exception {
+		return deSerCollection(new InputStreamReader(src, StandardCharsets.UTF_8), collectionType, elementType);
+	}
+
+	/**
+	 * Deserializing a JSON collection from a reader.
+	 * 
+	 * @see #deSerCollection(String, Object, Class)
+	 * 
+	 * @param src            the reader, which is not closed
+	 * @param collectionType the collection or the typed collection
+	 * @param elementType    the element type
+	 * @param <T>            class type of the elements
+	 * @return the generated Java Collection.
+	 * @throws Exception if reading or JSON deserialization fails
+	 */
+	default <T> Collection<T> deSerCollection(Reader src, Object collectionType, Class<T> elementType)
+			throws Exception {
+		return deSerCollection(read(src), collectionType, elementType);
+	}
+
+	/**
+	 * Deserializing a JSON collection from bytes in UTF-8.
+	 * 
+	 * @see #deSerCollection(String, Object, Class)
+	 * 
+	 * @param src            the bytes
+	 * @param offset         the offset of the JSON in the array
+	 * @param len            the length of the JSON in bytes
+	 * @param collectionType the collection or the typed collection
+	 * @param elementType    the element type
+	 * @param <T>            class type of the elements
+	 * @return the generated Java Collection.
+	 * @throws Exception if JSON deserialization fails
+	 */
+	default <T> Collection<T> deSerCollection(byte[] src, int offset, int len, Object collectionType,
+			Class<T> elementType) throws Exception {
+		return deSerCollection(new String(src, offset, len, StandardCharsets.UTF_8), collectionType, elementType);
+	}
+
+	/**
+	 * Deserializing a JSON collection from the remaining bytes of a buffer in
+	 * UTF-8. The position of the buffer is not changed.
+	 * 
+	 * @see #deSerCollection(String, Object, Class)
+	 * 
+	 * @param src            the buffer
+	 * @param collectionType the collection or the typed collection
+	 * @param elementType    the element type
+	 * @param <T>            class type of the elements
+	 * @return the generated Java Collection.
+	 * @throws Exception if JSON deserialization fails
+	 */
+	default <T> Collection<T> deSerCollection(ByteBuffer src, Object collectionType, Class<T> elementType)
+			throws Exception {
+		return deSerCollection(StandardCharsets.UTF_8.decode(src.duplicate()).toString(), collectionType,
+				elementType);
+	}
+
+	/**
+	 * Deserializing the elements of a JSON array from a stream in UTF-8 one at a
+	 * time. The memory required does not depend on the size of the array, if the
+	 * implementation parses incrementally. The default implementation reads the
+	 * complete array.
+	 * 
+	 * @param src         the stream, which is closed with the iterator
+	 * @param elementType the element type
+	 * @param <T>         class type of the elements
+	 * @return the iterator over the elements, which should be closed
+	 * @throws Exception if reading or JSON deserialization of the start fails
+	 */
+	default <T> CloseableIterator<T> deSerIterator(InputStream src, Class<T> elementType) throws Exception {
+		return deSerIterator(new InputStreamReader(src, StandardCharsets.UTF_8), elementType);
+	}
+
+	/**
+	 * Deserializing the elements of a JSON array from a reader one at a time.
+	 * 
+	 * @see #deSerIterator(InputStream, Class)
+	 * 
+	 * @param src         the reader, which is closed with the iterator
+	 * @param elementType the element type
+	 * @param <T>         class type of the elements
+	 * @return the iterator over the elements, which should be closed
+	 * @throws Exception if reading or JSON deserialization of the start fails
+	 */
+	@SuppressWarnings("unchecked")
+	default <T> CloseableIterator<T> deSerIterator(Reader src, Class<T> elementType) throws Exception {
+		T[] elements = deSer(src, (Class<T[]>) Array.newInstance(elementType, 0).getClass());
+		return CloseableIterator.of(Arrays.asList(elements).iterator(), src);
+	}
+
+	/**
+	 * Deserializing the elements of a JSON array from a stream in UTF-8 as
+	 * {@link Stream}, which should be closed.
+	 * 
+	 * @see #deSerIterator(InputStream, Class)
+	 * 
+	 * @param src         the stream, which is closed with the returned stream
+	 * @param elementType the element type
+	 * @param <T>         class type of the elements
+	 * @return the stream of elements
+	 * @throws Exception if reading or JSON deserialization of the start fails
+	 */
+	default <T> Stream<T> deSerStream(InputStream src, Class<T> elementType) throws Exception {
+		return deSerIterator(src, elementType).stream();
+	}
+
+	/**
+	 * Deserializing the elements of a JSON array from a reader as {@link Stream},
+	 * which should be closed.
+	 * 
+	 * @see #deSerIterator(Reader, Class)
+	 * 
+	 * @param src         the reader, which is closed with the returned stream
+	 * @param elementType the element type
+	 * @param <T>         class type of the elements
+	 * @return the stream of elements
+	 * @throws Exception if reading or JSON deserialization of the start fails
+	 */
+	default <T> Stream<T> deSerStream(Reader src, Class<T> elementType) throws Exception {
+		return deSerIterator(src, elementType).stream();
+	}
+
+	/**
+	 * Serializes the elements as JSON Lines (newline delimited JSON), each
+	 * element in a single line terminated by a newline.
+	 * 
+	 * @param out      the output stream (UTF-8), which is flushed, but not closed
+	 * @param elements the elements
+	 * @throws Exception if JSON serialization or writing fails
+	 */
+	default void serLines(OutputStream out, Iterator<?> elements) throws Exception {
+		serLines(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)), elements);
+	}
+
+	/**
+	 * Serializes the elements as JSON Lines (newline delimited JSON).
+	 * 
+	 * @see #serLines(OutputStream, Iterator)
+	 * 
+	 * @param writer   the writer, which is flushed, but not closed
+	 * @param elements the elements, a null element is written as JSON
+	 *                 <code>null</code>
+	 * @throws Exception if JSON serialization or writing fails
+	 */
+	default void serLines(Writer writer, Iterator<?> elements) throws Exception {
+		while (elements.hasNext()) {
+			Object element = elements.next();
+			String json = (element != null) ? ser(element) : null;
+			writer.write((json != null) ? json : "null");
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Deserializing JSON Lines (newline delimited JSON) one line at a time, empty
+	 * lines are skipped.
+	 * 
+	 * @param src  the stream in UTF-8, which is closed with the iterator
+	 * @param type the type of the elements
+	 * @param <T>  class type of the elements
+	 * @return the iterator over the elements, which should be closed
+	 * @throws Exception if reading fails
+	 */
+	default <T> CloseableIterator<T> deSerLines(InputStream src, Class<T> type) throws Exception {
+		return deSerLines(new InputStreamReader(src, StandardCharsets.UTF_8), type);
+	}
+
+	/**
+	 * Deserializing JSON Lines (newline delimited JSON) one line at a time.
+	 * 
+	 * @see #deSerLines(InputStream, Class)
+	 * 
+	 * @param src  the reader, which is closed with the iterator
+	 * @param type the type of the elements
+	 * @param <T>  class type of the elements
+	 * @return the iterator over the elements, which should be closed
+	 * @throws Exception if reading fails
+	 */
+	default <T> CloseableIterator<T> deSerLines(Reader src, Class<T> type) throws Exception {
+		BufferedReader reader = new BufferedReader(src);
+		Iterator<String> lines = reader.lines().filter(line -> !line.trim().isEmpty()).iterator();
+		return CloseableIterator.of(new Iterator<T>() {
+			@Override
+			public boolean hasNext() {
+				return lines.hasNext();
+			}
+
+			@Override
+			public T next() {
+				try {
+					return deSer(lines.next(), type);
+				} catch (RuntimeException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}
+		}, reader);
+	}
+
+	/**
+	 * The default implementation runs the calls on the common
+	 * {@link ForkJoinPool}, implementations may provide a
+	 * configured executor.
+	 * 
+	 * @return the asynchronous facade of this service
+	 */
+	default AsyncJsonService async() {
+		return new AsyncJsonService(this, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Deserializes the payloads in parallel on the executor of {@link #async()}.
+	 * Called by a task of this executor, the payloads are deserialized by the
+	 * calling thread.
+	 * 
+	 * @see AsyncJsonService#deSerAll(Collection, Class)
+	 * 
+	 * @param payloads the JSON payloads, each a {@link String} or a UTF-8
+	 *                 encoded byte array
+	 * @param type     the Java Type to be used as a class
+	 * @param <T>      the class type
+	 * @return the values in the order of the payloads and the exceptions of the
+	 *         failed elements
+	 */
+	default <T> BatchResult<T> deSerAll(Collection<?> payloads, Class<T> type) {
+		return async().deSerAll(payloads, type);
+	}
+
+	/**
+	 * Reads the characters of a reader, which is not closed.
+	 * 
+	 * @param src the reader
+	 * @return the characters read
+	 * @throws IOException if reading fails
+	 */
+	static String read(Reader src) throws IOException {
+		StringBuilder json = new StringBuilder();
+		char[] buffer = new char[4096];
+		int read;
+		while ((read = src.read(buffer)) != -1) {
+			json.append(buffer, 0, read);
+		}
+		return json.toString();
+	}
+
 	/**
 	 * Custom method without caching. Caching is set to <code>false</code> for this
 	 * method call.
@@ -188,6 +613,56 @@ public interface JsonService {
 	public <T> String serializeOnlyFilter(Object src, Class<T> filterClass, Boolean cleanFilter, String... filterAttr)
 			throws Exception;
 
+	/**
+	 * Serialize only object properties where filter attributes are provided to an
+	 * output stream in UTF-8.
+	 * 
+	 * @see #serializeOnlyFilter(Object, Class, Boolean, String...)
+	 * 
+	 * @param out         the output stream, which is flushed, but not closed
+	 * @param src         The Java object to serialize
+	 * @param filterClass the class to be filtered
+	 * @param <T>         class type of the object
+	 * @param cleanFilter If <code>true</code>, cleans cache and the custom
+	 *                    filter after serialization.
+	 * @param filterAttr  The class bean attributes which should be serialized
+	 * 
+	 * @throws Exception If JSON serialization, filter registration or writing fails
+	 */
+	default <T> void serializeOnlyFilter(OutputStream out, Object src, Class<T> filterClass, Boolean cleanFilter,
+			String... filterAttr) throws Exception {
+		String json = serializeOnlyFilter(src, filterClass, cleanFilter, filterAttr);
+		if (json != null) {
+			out.write(json.getBytes(StandardCharsets.UTF_8));
+			out.flush();
+		}
+	}
+
+	/**
+	 * Serialize only object properties where filter attributes are provided to a
+	 * writer.
+	 * 
+	 * @see #serializeOnlyFilter(Object, Class, Boolean, String...)
+	 * 
+	 * @param writer      the writer, which is flushed, but not closed
+	 * @param src         The Java object to serialize
+	 * @param filterClass the class to be filtered
+	 * @param <T>         class type of the object
+	 * @param cleanFilter If <code>true</code>, cleans cache and the custom
+	 *                    filter after serialization.
+	 * @param filterAttr  The class bean attributes which should be serialized
+	 * 
+	 * @throws Exception If JSON serialization, filter registration or writing fails
+	 */
+	default <T> void serializeOnlyFilter(Writer writer, Object src, Class<T> filterClass, Boolean cleanFilter,
+			String... filterAttr) throws Exception {
+		String json = serializeOnlyFilter(src, filterClass, cleanFilter, filterAttr);
+		if (json != null) {
+			writer.write(json);
+			writer.flush();
+		}
+	}
+
 	/**
 	 * Serialize all object properties excluding provided filters attributes. If no
 	 * filter is set, all attributes should be returned.
@@ -209,6 +684,56 @@ public interface JsonService {
 	public <T> String serializeAllExceptFilter(Object src, Class<T> filterClass, Boolean cleanFilter,
 			String... filterAttr) throws Exception;
 
+	/**
+	 * Serialize all object properties excluding provided filters attributes to an
+	 * output stream in UTF-8.
+	 * 
+	 * @see #serializeAllExceptFilter(Object, Class, Boolean, String...)
+	 * 
+	 * @param out         the output stream, which is flushed, but not closed
+	 * @param src         The Java object to serialize
+	 * @param filterClass The class, which should be filtered out, if found as a
+	 *                    property type.
+	 * @param <T>         class type of the object
+	 * @param cleanFilter If <code>true </code> cleans filter after serialization.
+	 * @param filterAttr  The bean attributes which should not be serialized
+	 * 
+	 * @throws Exception If JSON serialization, filter registration or writing fails
+	 */
+	default <T> void serializeAllExceptFilter(OutputStream out, Object src, Class<T> filterClass,
+			Boolean cleanFilter, String... filterAttr) throws Exception {
+		String json = serializeAllExceptFilter(src, filterClass, cleanFilter, filterAttr);
+		if (json != null) {
+			out.write(json.getBytes(StandardCharsets.UTF_8));
+			out.flush();
+		}
+	}
+
+	/**
+	 * Serialize all object properties excluding provided filters attributes to a
+	 * writer.
+	 * 
+	 * @see #serializeAllExceptFilter(Object, Class, Boolean, String...)
+	 * 
+	 * @param writer      the writer, which is flushed, but not closed
+	 * @param src         The Java object to serialize
+	 * @param filterClass The class, which should be filtered out, if found as a
+	 *                    property type.
+	 * @param <T>         class type of the object
+	 * @param cleanFilter If <code>true </code> cleans filter after serialization.
+	 * @param filterAttr  The bean attributes which should not be serialized
+	 * 
+	 * @throws Exception If JSON serialization, filter registration or writing fails
+	 */
+	default <T> void serializeAllExceptFilter(Writer writer, Object src, Class<T> filterClass,
+			Boolean cleanFilter, String... filterAttr) throws Exception {
+		String json = serializeAllExceptFilter(src, filterClass, cleanFilter, filterAttr);
+		if (json != null) {
+			writer.write(json);
+			writer.flush();
+		}
+	}
+
 	/**
 	 * Class Filter is derived from param src object class.
 	 * <code>refreshFilter</code> is set to <code>false</code> for this method call.
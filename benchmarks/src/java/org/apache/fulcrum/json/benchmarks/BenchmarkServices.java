@@ -0,0 +1,118 @@
+package org.apache.fulcrum.json.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.avalon.framework.activity.Initializable;
+import org.apache.avalon.framework.configuration.Configurable;
+import org.apache.avalon.framework.configuration.Configuration;
+import org.apache.avalon.framework.configuration.DefaultConfiguration;
+import org.apache.avalon.framework.logger.LogEnabled;
+import org.apache.avalon.framework.logger.NullLogger;
+import org.apache.fulcrum.json.JsonService;
+import org.apache.fulcrum.json.gson.GSONBuilderService;
+import org.apache.fulcrum.json.jackson.Jackson2MapperService;
+
+/**
+ * Sets up the JSON services outside of an Avalon container, following the
+ * Avalon lifecycle (enableLogging, configure, initialize) with the same
+ * configuration the unit tests of the modules use.
+ *
+ * @author gk
+ * @version $Id$
+ */
+public final class BenchmarkServices {
+
+    public static final String JACKSON2 = "jackson2";
+
+    /** Jackson 2 with property access by the Afterburner module */
+    public static final String JACKSON2_AFTERBURNER = "jackson2-afterburner";
+
+    public static final String GSON = "gson";
+
+    private BenchmarkServices() {
+        // utility class
+    }
+
+    /**
+     * @param backend {@link #JACKSON2}, {@link #JACKSON2_AFTERBURNER} or
+     *                {@link #GSON}
+     * @return a configured and initialized service
+     * @throws Exception if the service could not be initialized
+     */
+    public static JsonService create(String backend) throws Exception {
+        final JsonService service;
+        final Configuration conf;
+        if (JACKSON2.equals(backend) || JACKSON2_AFTERBURNER.equals(backend)) {
+            service = new Jackson2MapperService();
+            conf = jackson2Configuration(JACKSON2_AFTERBURNER.equals(backend));
+        } else if (GSON.equals(backend)) {
+            service = new GSONBuilderService();
+            conf = gsonConfiguration();
+        } else {
+            throw new IllegalArgumentException("Unknown backend: " + backend);
+        }
+        ((LogEnabled) service).enableLogging(new NullLogger());
+        ((Configurable) service).configure(conf);
+        ((Initializable) service).initialize();
+        return service;
+    }
+
+    private static Configuration jackson2Configuration(boolean afterburner) {
+        DefaultConfiguration json = new DefaultConfiguration("json");
+
+        DefaultConfiguration inspectors = new DefaultConfiguration("annotationInspectors");
+        inspectors.addChild(child("primary",
+                "org.apache.fulcrum.json.jackson.SimpleNameIntrospector"));
+        inspectors.addChild(child("secondary",
+                "com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector"));
+        DefaultConfiguration features = new DefaultConfiguration("features");
+        features.addChild(feature("com.fasterxml.jackson.databind.SerializationFeature",
+                "FAIL_ON_EMPTY_BEANS", false));
+        features.addChild(feature("com.fasterxml.jackson.databind.DeserializationFeature",
+                "FAIL_ON_UNKNOWN_PROPERTIES", false));
+        inspectors.addChild(features);
+        json.addChild(inspectors);
+
+        json.addChild(child("dateFormat", "MM/dd/yyyy"));
+        if (afterburner) {
+            json.addChild(child("propertyAccess", Jackson2MapperService.AFTERBURNER));
+        }
+        return json;
+    }
+
+    private static Configuration gsonConfiguration() {
+        DefaultConfiguration json = new DefaultConfiguration("json");
+        json.addChild(child("dateFormat", "MM/dd/yyyy"));
+        return json;
+    }
+
+    private static DefaultConfiguration child(String name, String value) {
+        DefaultConfiguration child = new DefaultConfiguration(name);
+        child.setValue(value);
+        return child;
+    }
+
+    private static DefaultConfiguration feature(String type, String feature, boolean value) {
+        DefaultConfiguration child = child("feature", feature);
+        child.setAttribute("type", type);
+        child.setAttribute("value", Boolean.toString(value));
+        return child;
+    }
+}
@@ -0,0 +1,160 @@
+package org.apache.fulcrum.json.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.fulcrum.json.JsonService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link JsonService} contract methods on both backends.
+ * 
+ * Throughput reports ops/s, sample time reports the latency percentiles
+ * (p0.99). Running with <code>-prof gc</code> (the default of
+ * {@link BenchmarkRunner}) adds gc.alloc.rate.norm, the bytes allocated per
+ * operation.
+ *
+ * @author gk
+ * @version $Id$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class JsonServiceBenchmark {
+
+    @Param({ BenchmarkServices.JACKSON2, BenchmarkServices.JACKSON2_AFTERBURNER, BenchmarkServices.GSON })
+    public String backend;
+
+    @Param({ Payloads.RECTANGLE, Payloads.TESTCLASS, Payloads.LIST_1K, Payloads.LIST_10MB })
+    public String payload;
+
+    private JsonService service;
+
+    private Object src;
+
+    private Class<?> type;
+
+    private Class<?> beanClass;
+
+    private String[] filterAttributes;
+
+    private Object collectionType;
+
+    private String json;
+
+    private String collectionJson;
+
+    private byte[] jsonBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        service = BenchmarkServices.create(backend);
+        src = Payloads.create(payload);
+        type = Payloads.type(payload);
+        beanClass = Payloads.beanClass(payload);
+        filterAttributes = Payloads.filterAttributes(payload);
+        collectionType = Payloads.collectionType(backend, beanClass);
+        json = service.ser(src);
+        collectionJson = (src instanceof Collection) ? json : service.ser(Collections.singletonList(src));
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String ser() throws Exception {
+        return service.ser(src);
+    }
+
+    /**
+     * Streams the JSON in UTF-8, the sink only counts the bytes.
+     * 
+     * @return the number of bytes written
+     * @throws Exception if serialization fails
+     */
+    @Benchmark
+    public long serToStream() throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        service.ser(out, src);
+        return out.count;
+    }
+
+    @Benchmark
+    public String serWithType() throws Exception {
+        return service.ser(src, type);
+    }
+
+    @Benchmark
+    public Object deSer() throws Exception {
+        return service.deSer(json, type);
+    }
+
+    @Benchmark
+    public Object deSerBytes() throws Exception {
+        return service.deSer(jsonBytes, 0, jsonBytes.length, type);
+    }
+
+    @Benchmark
+    public Collection<?> deSerCollection() throws Exception {
+        return service.deSerCollection(collectionJson, collectionType, beanClass);
+    }
+
+    @Benchmark
+    public String serializeOnlyFilter() throws Exception {
+        return service.serializeOnlyFilter(src, beanClass, filterAttributes);
+    }
+
+    @Benchmark
+    public String serializeAllExceptFilter() throws Exception {
+        return service.serializeAllExceptFilter(src, beanClass, filterAttributes);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
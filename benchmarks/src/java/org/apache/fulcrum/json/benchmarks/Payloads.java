@@ -0,0 +1,126 @@
+package org.apache.fulcrum.json.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Benchmark payloads, from a single small bean up to a collection serializing
+ * to roughly ten megabytes.
+ *
+ * @author gk
+ * @version $Id$
+ */
+public final class Payloads {
+
+    /** a single {@link Rectangle} */
+    public static final String RECTANGLE = "rectangle";
+
+    /** a single {@link TestClass} with a nested map */
+    public static final String TESTCLASS = "testclass";
+
+    /** 1000 {@link Rectangle}s, about 45 KB of JSON */
+    public static final String LIST_1K = "list1k";
+
+    /** 230000 {@link Rectangle}s, about 10 MB of JSON */
+    public static final String LIST_10MB = "list10mb";
+
+    private static final int SIZE_10MB = 230_000;
+
+    private Payloads() {
+        // utility class
+    }
+
+    /**
+     * @param payload one of the payload names
+     * @return the object to be serialized
+     */
+    public static Object create(String payload) {
+        switch (payload) {
+        case RECTANGLE:
+            return new Rectangle(5, 10, "rect");
+        case TESTCLASS:
+            return new TestClass("payload");
+        case LIST_1K:
+            return rectangles(1000);
+        case LIST_10MB:
+            return rectangles(SIZE_10MB);
+        default:
+            throw new IllegalArgumentException("Unknown payload: " + payload);
+        }
+    }
+
+    /**
+     * @param payload one of the payload names
+     * @return the class deserialized into, an array type for collection payloads
+     */
+    public static Class<?> type(String payload) {
+        switch (payload) {
+        case RECTANGLE:
+            return Rectangle.class;
+        case TESTCLASS:
+            return TestClass.class;
+        default:
+            return Rectangle[].class;
+        }
+    }
+
+    /**
+     * @param payload one of the payload names
+     * @return the bean class, which is the element class of collection payloads
+     *         and the class the filters are applied to
+     */
+    public static Class<?> beanClass(String payload) {
+        return TESTCLASS.equals(payload) ? TestClass.class : Rectangle.class;
+    }
+
+    /**
+     * @param payload one of the payload names
+     * @return the bean properties used as filter attributes
+     */
+    public static String[] filterAttributes(String payload) {
+        return TESTCLASS.equals(payload) ? new String[] { "name", "container" }
+                : new String[] { "w", "name" };
+    }
+
+    /**
+     * @param backend the backend the collection type is used with
+     * @param elementType the element class of the collection
+     * @return the collection type in the form the backend expects it in
+     *         {@link org.apache.fulcrum.json.JsonService#deSerCollection(String, Object, Class)}
+     */
+    public static Object collectionType(String backend, Class<?> elementType) {
+        if (BenchmarkServices.GSON.equals(backend)) {
+            return TypeToken.getParameterized(List.class, elementType).getType();
+        }
+        return new ArrayList<Object>();
+    }
+
+    private static List<Rectangle> rectangles(int size) {
+        List<Rectangle> rectangles = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rectangles.add(new Rectangle(i % 1000, i, "rectangle-" + i));
+        }
+        return rectangles;
+    }
+}
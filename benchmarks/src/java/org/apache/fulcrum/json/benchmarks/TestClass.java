@@ -0,0 +1,71 @@
+package org.apache.fulcrum.json.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Nested bean with a map container, the same shape as the bean used in the
+ * service unit tests.
+ */
+public class TestClass {
+
+    /** Container for the components */
+    private Map<String, Object> container;
+
+    private String configurationName = "Config.xml";
+
+    private String name;
+
+    public TestClass() {
+        // required for deserialization
+    }
+
+    public TestClass(String name) {
+        this.name = name;
+        this.container = new HashMap<String, Object>();
+        this.container.put("cf", configurationName);
+    }
+
+    public Map<String, Object> getContainer() {
+        return container;
+    }
+
+    public void setContainer(Map<String, Object> container) {
+        this.container = container;
+    }
+
+    public String getConfigurationName() {
+        return configurationName;
+    }
+
+    public void setConfigurationName(String configurationName) {
+        this.configurationName = configurationName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
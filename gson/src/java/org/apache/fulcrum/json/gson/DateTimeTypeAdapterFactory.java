@@ -0,0 +1,228 @@
+package org.apache.fulcrum.json.gson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Adapters for {@link Date}, {@link Instant} and the local, offset and zoned
+ * java.time types. They are based on immutable {@link DateTimeFormatter}s and
+ * are thread safe without locking, unlike {@link DateTypeAdapter}.
+ *
+ * Dates and instants are written with the pattern in the zone, or as
+ * milliseconds since the epoch, if the pattern is {@link #EPOCH_MILLIS}. Dates
+ * include the subclasses {@link java.sql.Date}, {@link Time} and
+ * {@link Timestamp} with millisecond precision.
+ * Without a pattern, dates are left to the default adapter of Gson and
+ * instants are written in ISO-8601. The other java.time types are always
+ * written in ISO-8601.
+ *
+ * @author gk
+ * @version $Id$
+ */
+public final class DateTimeTypeAdapterFactory implements TypeAdapterFactory {
+
+    /**
+     * Pattern writing dates and instants as milliseconds since the epoch.
+     */
+    public static final String EPOCH_MILLIS = "epochMillis";
+
+    /**
+     * Constructors of the date classes from milliseconds since the epoch.
+     */
+    private static final Map<Class<?>, LongFunction<Date>> DATE_TYPES = new HashMap<>();
+
+    static {
+        DATE_TYPES.put(Date.class, Date::new);
+        DATE_TYPES.put(java.sql.Date.class, java.sql.Date::new);
+        DATE_TYPES.put(Time.class, Time::new);
+        DATE_TYPES.put(Timestamp.class, Timestamp::new);
+    }
+
+    private final Map<Class<?>, TypeAdapter<?>> adapters = new HashMap<>();
+
+    /** creates the adapter of a date class, null for the default adapters of Gson */
+    private Function<LongFunction<Date>, TypeAdapter<Date>> dateAdapter;
+
+    private DateTimeTypeAdapterFactory() {
+    }
+
+    /**
+     * @param pattern the pattern of dates and instants, {@link #EPOCH_MILLIS} or
+     *                null for the defaults
+     * @param zone    the zone of dates and instants, which are written by the
+     *                pattern
+     * @return the factory
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public static DateTimeTypeAdapterFactory of(String pattern, ZoneId zone) {
+        DateTimeTypeAdapterFactory factory = new DateTimeTypeAdapterFactory();
+        if (EPOCH_MILLIS.equals(pattern)) {
+            factory.dateAdapter = toDate -> new EpochMillisAdapter<>(Date::getTime, toDate);
+            factory.adapters.put(Instant.class, new EpochMillisAdapter<>(Instant::toEpochMilli, Instant::ofEpochMilli));
+        } else if (pattern != null) {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern).withZone(zone);
+            // java.sql.Date and Time do not support toInstant()
+            factory.dateAdapter = toDate -> new FormatterAdapter<>(
+                    date -> formatter.format(Instant.ofEpochMilli(date.getTime())),
+                    text -> toDate.apply(toInstant(formatter.parse(text), zone).toEpochMilli()));
+            factory.adapters.put(Instant.class,
+                    new FormatterAdapter<>(formatter::format, text -> toInstant(formatter.parse(text), zone)));
+        } else {
+            factory.adapters.put(Instant.class,
+                    new FormatterAdapter<>(DateTimeFormatter.ISO_INSTANT::format, Instant::parse));
+        }
+        factory.adapters.put(LocalDate.class,
+                new FormatterAdapter<>(DateTimeFormatter.ISO_LOCAL_DATE::format, LocalDate::parse));
+        factory.adapters.put(LocalDateTime.class,
+                new FormatterAdapter<>(DateTimeFormatter.ISO_LOCAL_DATE_TIME::format, LocalDateTime::parse));
+        factory.adapters.put(LocalTime.class,
+                new FormatterAdapter<>(DateTimeFormatter.ISO_LOCAL_TIME::format, LocalTime::parse));
+        factory.adapters.put(OffsetDateTime.class,
+                new FormatterAdapter<>(DateTimeFormatter.ISO_OFFSET_DATE_TIME::format, OffsetDateTime::parse));
+        factory.adapters.put(ZonedDateTime.class,
+                new FormatterAdapter<>(DateTimeFormatter.ISO_ZONED_DATE_TIME::format, ZonedDateTime::parse));
+        return factory;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked") // the adapters are registered by their raw type
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
+        Class<? super T> type = typeToken.getRawType();
+        if (dateAdapter != null && Date.class.isAssignableFrom(type)) {
+            // other subclasses are left to Gson, as they cannot be created
+            LongFunction<Date> toDate = DATE_TYPES.get(type);
+            return (toDate != null) ? (TypeAdapter<T>) dateAdapter.apply(toDate) : null;
+        }
+        return (TypeAdapter<T>) adapters.get(type);
+    }
+
+    /**
+     * Missing fields are completed like {@link java.text.SimpleDateFormat}
+     * does: the date with the epoch, the time with midnight and the zone with
+     * the provided one.
+     *
+     * @param parsed the parsed date and time
+     * @param zone   the zone, if none is parsed
+     * @return the instant
+     */
+    private static Instant toInstant(TemporalAccessor parsed, ZoneId zone) {
+        LocalDate date = parsed.query(TemporalQueries.localDate());
+        LocalTime time = parsed.query(TemporalQueries.localTime());
+        ZoneId parsedZone = parsed.query(TemporalQueries.zone());
+        return ZonedDateTime.of((date != null) ? date : LocalDate.ofEpochDay(0),
+                (time != null) ? time : LocalTime.MIDNIGHT, (parsedZone != null) ? parsedZone : zone).toInstant();
+    }
+
+    /**
+     * Writes and reads the value as string.
+     */
+    private static final class FormatterAdapter<T> extends TypeAdapter<T> {
+        private final Function<T, String> format;
+        private final Function<String, T> parse;
+
+        FormatterAdapter(Function<T, String> format, Function<String, T> parse) {
+            this.format = format;
+            this.parse = parse;
+        }
+
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.value(format.apply(value));
+        }
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            String text = in.nextString();
+            try {
+                return parse.apply(text);
+            } catch (DateTimeException e) {
+                throw new JsonSyntaxException(text, e);
+            }
+        }
+    }
+
+    /**
+     * Writes and reads the value as number of milliseconds since the epoch.
+     */
+    private static final class EpochMillisAdapter<T> extends TypeAdapter<T> {
+        private final ToLongFunction<T> toMillis;
+        private final LongFunction<T> fromMillis;
+
+        EpochMillisAdapter(ToLongFunction<T> toMillis, LongFunction<T> fromMillis) {
+            this.toMillis = toMillis;
+            this.fromMillis = fromMillis;
+        }
+
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.value(toMillis.applyAsLong(value));
+        }
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return fromMillis.apply(in.nextLong());
+        }
+    }
+}
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.util.Date;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
@@ -37,7 +38,8 @@ import com.google.gson.stream.JsonWriter;
  * Adapter for Date. Although this class appears stateless, it is not.
  * DateFormat captures its time zone and locale when it is created, which gives
  * this class state. DateFormat isn't thread safe either, so this class has
- * to synchronize its read and write methods.
+ * to lock its read and write methods. A {@link ReentrantLock} is used instead of
+ * synchronized methods, so a waiting virtual thread releases its carrier thread.
  */
 public final class DateTypeAdapter extends TypeAdapter<Date> {
   public static final TypeAdapterFactory FACTORY = new TypeAdapterFactory() {
@@ -49,6 +51,8 @@ public final class DateTypeAdapter extends TypeAdapter<Date> {
   };
   
   // default 
+  private final ReentrantLock lock = new ReentrantLock();
+
   private DateFormat customDateFormat = DateFormat.getDateTimeInstance(DateFormat.DEFAULT, DateFormat.DEFAULT);;
   
   public void setCustomDateFormat(DateFormat df) {
@@ -68,20 +72,29 @@ public final class DateTypeAdapter extends TypeAdapter<Date> {
     return deserializeToDate(in.nextString());
   }
 
-  private synchronized Date deserializeToDate(String json) {
+  private Date deserializeToDate(String json) {
+    lock.lock();
     try {
       return customDateFormat.parse(json);
     } catch (ParseException e) {
       throw new JsonSyntaxException(json, e);
+    } finally {
+      lock.unlock();
     }
   }
 
-  @Override public synchronized void write(JsonWriter out, Date value) throws IOException {
+  @Override public void write(JsonWriter out, Date value) throws IOException {
     if (value == null) {
       out.nullValue();
       return;
     }
-    String dateFormatAsString = customDateFormat.format(value);
+    String dateFormatAsString;
+    lock.lock();
+    try {
+      dateFormatAsString = customDateFormat.format(value);
+    } finally {
+      lock.unlock();
+    }
     out.value(dateFormatAsString);
   }
 
@@ -19,9 +19,23 @@
  * under the License.
  */
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -29,21 +43,38 @@ import java.util.EnumSet;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeSet;
 import java.util.concurrent.Callable;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
+import org.apache.avalon.framework.activity.Disposable;
 import org.apache.avalon.framework.activity.Initializable;
 import org.apache.avalon.framework.configuration.Configurable;
 import org.apache.avalon.framework.configuration.Configuration;
 import org.apache.avalon.framework.configuration.ConfigurationException;
 import org.apache.avalon.framework.logger.AbstractLogEnabled;
+import org.apache.fulcrum.json.AsyncJsonService;
+import org.apache.fulcrum.json.CloseableIterator;
+import org.apache.fulcrum.json.JsonExecutors;
 import org.apache.fulcrum.json.JsonService;
 
 import com.google.gson.ExclusionStrategy;
 import com.google.gson.FieldAttributes;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.jayway.jsonpath.Option;
 import com.jayway.jsonpath.spi.json.GsonJsonProvider;
 import com.jayway.jsonpath.spi.json.JsonProvider;
@@ -61,26 +92,67 @@ import com.jayway.jsonpath.spi.mapper.MappingProvider;
  * 
  */
 public class GSONBuilderService extends AbstractLogEnabled implements
-        JsonService, Initializable, Configurable {
+        JsonService, Initializable, Configurable, Disposable {
 
     private static final String GLOBAL_ADAPTERS = "globalAdapters";
 
     private static final String DATE_FORMAT = "dateFormat";
+
+    private static final String ZONE = "zone";
+
+    private static final String TYPE = "type";
+
+    /**
+     * Dates formatted by a {@link SimpleDateFormat}, which is locked by the
+     * {@link DateTypeAdapter}, the default.
+     */
+    public static final String SIMPLE_DATE_FORMAT = "simple";
+
+    /**
+     * Dates and java.time types formatted without locking by the
+     * {@link DateTimeTypeAdapterFactory}.
+     */
+    public static final String JAVA_TIME = "javaTime";
     
     private static final String USEJSONPATH = "useJsonPath";
 
+    private static final String FILTER_CACHE = "filterCache";
+
+    /**
+     * Default maximum number of cached filtered Gson instances.
+     */
+    public static final int DEFAULT_FILTER_CACHE_SIZE = 1000;
+
     private String dateFormat;
 
+    private String dateFormatType = SIMPLE_DATE_FORMAT;
+
+    private ZoneId dateZone = ZoneId.systemDefault();
+
+    private DateTimeTypeAdapterFactory dateTimeAdapters;
+
     private Hashtable<String, String> adapters = null;
 
     private boolean useJsonPath = false;
+
+    private Configuration executorConf = null;
+
+    private AsyncJsonService asyncService;
     
     GsonBuilder gson;
 
+    // built from the builder with the filtered instances derived from it,
+    // replaced only if the builder is changed
+    private volatile GsonState state;
+
+    private int filterCacheMaxEntries = DEFAULT_FILTER_CACHE_SIZE;
+
+    private final ReentrantLock builderLock = new ReentrantLock();
+
     @Override
     public String ser(Object src) throws Exception {
         getLogger().debug("ser" + src);
-        return gson.create().toJson(src);
+        return gson().toJson(src);
     }
 
     @Override
@@ -89,14 +161,60 @@ public class GSONBuilderService extends AbstractLogEnabled implements
 
         Type collectionType = new TypeToken<T>() {
         }.getType();
-        return gson.create().toJson(src, collectionType);
+        return gson().toJson(src, collectionType);
+    }
+
+    /**
+     * Writes by a {@link JsonWriter} to the stream in UTF-8, the stream is not closed.
+     */
+    @Override
+    public void ser(OutputStream out, Object src) throws Exception {
+        getLogger().debug("ser" + src);
+        toJson(gson(), src, typeOf(src), out);
+    }
+
+    @Override
+    public void ser(Writer writer, Object src) throws Exception {
+        getLogger().debug("ser" + src);
+        toJson(gson(), src, typeOf(src), writer);
+    }
+
+    @Override
+    public <T> void ser(OutputStream out, Object src, Class<T> type) throws Exception {
+        getLogger().debug("ser::" + src + " with type" + type);
+        Type collectionType = new TypeToken<T>() {
+        }.getType();
+        toJson(gson(), src, collectionType, out);
+    }
+
+    @Override
+    public <T> void ser(Writer writer, Object src, Class<T> type) throws Exception {
+        getLogger().debug("ser::" + src + " with type" + type);
+        Type collectionType = new TypeToken<T>() {
+        }.getType();
+        toJson(gson(), src, collectionType, writer);
+    }
+
+    private static Type typeOf(Object src) {
+        return (src != null) ? src.getClass() : Object.class;
+    }
+
+    private void toJson(Gson gson, Object src, Type type, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        toJson(gson, src, type, writer);
+    }
+
+    private void toJson(Gson gson, Object src, Type type, Writer writer) throws IOException {
+        JsonWriter jsonWriter = gson.newJsonWriter(writer);
+        gson.toJson(src, type, jsonWriter);
+        jsonWriter.flush();
     }
 
     @Override
     public <T> T deSer(String json, Class<T> type) throws Exception {
         // TODO Auto-generated method stub
         getLogger().debug("deser:" + json);
-        return gson.create().fromJson(json, type);
+        return gson().fromJson(json, type);
     }
     
     @Override
@@ -104,37 +222,232 @@ public class GSONBuilderService extends AbstractLogEnabled implements
             Class<T> elementType) throws Exception {
         getLogger().debug("deser:" + json);
         getLogger().debug("collectionType:" + collectionType);
-        return  gson.create().fromJson(json, (Type)collectionType);
+        return  gson().fromJson(json, (Type)collectionType);
+    }
+
+    /**
+     * Reads the stream in UTF-8 without an intermediate string, the stream is not closed.
+     */
+    @Override
+    public <T> T deSer(InputStream src, Class<T> type) throws Exception {
+        return deSer(new InputStreamReader(src, StandardCharsets.UTF_8), type);
+    }
+
+    @Override
+    public <T> T deSer(Reader src, Class<T> type) throws Exception {
+        return gson().fromJson(src, type);
+    }
+
+    @Override
+    public <T> T deSer(byte[] src, int offset, int len, Class<T> type)
+            throws Exception {
+        return deSer(new ByteArrayInputStream(src, offset, len), type);
+    }
+
+    @Override
+    public <T> T deSer(ByteBuffer src, Class<T> type) throws Exception {
+        return deSer(new ByteBufferInputStream(src.duplicate()), type);
+    }
+
+    @Override
+    public <T> Collection<T> deSerCollection(InputStream src,
+            Object collectionType, Class<T> elementType) throws Exception {
+        return deSerCollection(new InputStreamReader(src, StandardCharsets.UTF_8),
+                collectionType, elementType);
+    }
+
+    @Override
+    public <T> Collection<T> deSerCollection(Reader src, Object collectionType,
+            Class<T> elementType) throws Exception {
+        getLogger().debug("collectionType:" + collectionType);
+        return gson().fromJson(src, (Type) collectionType);
+    }
+
+    @Override
+    public <T> Collection<T> deSerCollection(byte[] src, int offset, int len,
+            Object collectionType, Class<T> elementType) throws Exception {
+        return deSerCollection(new ByteArrayInputStream(src, offset, len),
+                collectionType, elementType);
+    }
+
+    @Override
+    public <T> Collection<T> deSerCollection(ByteBuffer src,
+            Object collectionType, Class<T> elementType) throws Exception {
+        return deSerCollection(new ByteBufferInputStream(src.duplicate()),
+                collectionType, elementType);
+    }
+
+    /**
+     * Reads one element at a time by a {@link JsonReader}, the reader is
+     * closed with the iterator or after reading the last element.
+     */
+    @Override
+    public <T> CloseableIterator<T> deSerIterator(Reader src, Class<T> elementType)
+            throws Exception {
+        Gson gson = gson();
+        JsonReader reader = gson.newJsonReader(src);
+        reader.beginArray();
+        return new JsonElementIterator<>(gson, reader, elementType, true);
+    }
+
+    /**
+     * Writes JSON Lines by a single {@link JsonWriter}.
+     */
+    @Override
+    public void serLines(Writer writer, Iterator<?> elements) throws Exception {
+        Gson gson = gson();
+        JsonWriter jsonWriter = gson.newJsonWriter(writer);
+        while (elements.hasNext()) {
+            Object src = elements.next();
+            gson.toJson(src, typeOf(src), jsonWriter);
+            writer.write('\n');
+        }
+        jsonWriter.flush();
+    }
+
+    /**
+     * Reads the lines by a single lenient {@link JsonReader}, the reader is
+     * closed with the iterator or after reading the last element.
+     */
+    @Override
+    public <T> CloseableIterator<T> deSerLines(Reader src, Class<T> type)
+            throws Exception {
+        Gson gson = gson();
+        JsonReader reader = gson.newJsonReader(src);
+        // multiple top level values
+        reader.setLenient(true);
+        return new JsonElementIterator<>(gson, reader, type, false);
+    }
+
+    /**
+     * Iterates over the elements of a JSON array, the reader is positioned
+     * after the start of the array, or over the top level values of JSON Lines.
+     */
+    private static final class JsonElementIterator<T> implements CloseableIterator<T> {
+
+        private final Gson gson;
+
+        private final JsonReader reader;
+
+        private final Class<T> elementType;
+
+        private final boolean array;
+
+        private boolean closed = false;
+
+        JsonElementIterator(Gson gson, JsonReader reader, Class<T> elementType, boolean array) {
+            this.gson = gson;
+            this.reader = reader;
+            this.elementType = elementType;
+            this.array = array;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (closed) {
+                return false;
+            }
+            try {
+                if (array ? reader.hasNext() : reader.peek() != JsonToken.END_DOCUMENT) {
+                    return true;
+                }
+                if (array) {
+                    reader.endArray();
+                }
+                close();
+                return false;
+            } catch (IOException e) {
+                throw new JsonIOException(e);
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return gson.fromJson(reader, elementType);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Reads the remaining bytes of a buffer.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(bytes, off, count);
+            return count;
+        }
     }
 
     @Override
     public String serializeOnlyFilter(Object src, String... filterAttr)
             throws Exception {
-        return  gson
-                .addSerializationExclusionStrategy(
-                        include(null,filterAttr)).create().toJson(src);
+        return filtered(null, true, false, filterAttr).toJson(src);
     }
 
+    /**
+     * @param cleanFilter if <code>true</code> the filtered Gson is not cached
+     */
     @Override
-    public String serializeOnlyFilter(Object src, Boolean notused,
+    public String serializeOnlyFilter(Object src, Boolean cleanFilter,
             String... filterAttr) throws Exception {
-        return  gson
-                .addSerializationExclusionStrategy(
-                        include(null,filterAttr)).create().toJson(src);
+        return filtered(null, true, cleanFilter, filterAttr).toJson(src);
     }
 
     @Override
     public <T> String serializeOnlyFilter(Object src, Class<T> filterClass,
             String... filterAttr) throws Exception {
-        return  gson
-        .addSerializationExclusionStrategy(
-                include(filterClass, filterAttr)).create().toJson(src);
+        return filtered(filterClass, true, false, filterAttr).toJson(src);
     }
     
+    /**
+     * @param cleanFilter if <code>true</code> the filtered Gson is not cached
+     */
+    @Override
+    public <T> String serializeOnlyFilter(Object src, Class<T> filterClass,
+            Boolean cleanFilter, String... filterAttr) throws Exception {
+        return filtered(filterClass, true, cleanFilter, filterAttr).toJson(src);
+    }
+
     @Override
-    public <T> String serializeOnlyFilter(Object arg0, Class<T> arg1,
-            Boolean arg2, String... arg3) throws Exception {
-        throw new Exception("Not yet implemented!");
+    public <T> void serializeOnlyFilter(OutputStream out, Object src, Class<T> filterClass,
+            Boolean cleanFilter, String... filterAttr) throws Exception {
+        toJson(filtered(filterClass, true, cleanFilter, filterAttr), src, typeOf(src), out);
+    }
+
+    @Override
+    public <T> void serializeOnlyFilter(Writer writer, Object src, Class<T> filterClass,
+            Boolean cleanFilter, String... filterAttr) throws Exception {
+        toJson(filtered(filterClass, true, cleanFilter, filterAttr), src, typeOf(src), writer);
     }
 
     /**
@@ -145,7 +458,7 @@ public class GSONBuilderService extends AbstractLogEnabled implements
     @Override
     public JsonService addAdapter(String name, Class target, Object adapter)
             throws Exception {
-        gson.registerTypeAdapter(target, adapter);
+        changeBuilder(builder -> builder.registerTypeAdapter(target, adapter));
         return this;
     }
 
@@ -158,38 +471,51 @@ public class GSONBuilderService extends AbstractLogEnabled implements
     @Override
     public JsonService addAdapter(String name, Class target, Class adapter)
             throws Exception {
-        gson.registerTypeAdapter(target, adapter.getConstructor().newInstance());
+        Object instance = adapter.getConstructor().newInstance();
+        changeBuilder(builder -> builder.registerTypeAdapter(target, instance));
         return null;
     }
 
     @Override
     public <T> String serializeAllExceptFilter(Object src,
             Class<T> filterClass, String... filterAttr) throws Exception {
-        return gson
-                .addSerializationExclusionStrategy(
-                        exclude(filterClass, filterAttr)).create().toJson(src);
+        return filtered(filterClass, false, false, filterAttr).toJson(src);
     }
     
+    /**
+     * @param cleanFilter if <code>true</code> the filtered Gson is not cached
+     */
     @Override
     public <T> String serializeAllExceptFilter(Object src, Class<T> filterClass,
-            Boolean clearCache, String... filterAttr) throws Exception {
-        throw new Exception("Not yet implemented!");
+            Boolean cleanFilter, String... filterAttr) throws Exception {
+        return filtered(filterClass, false, cleanFilter, filterAttr).toJson(src);
+    }
+
+    @Override
+    public <T> void serializeAllExceptFilter(OutputStream out, Object src, Class<T> filterClass,
+            Boolean cleanFilter, String... filterAttr) throws Exception {
+        toJson(filtered(filterClass, false, cleanFilter, filterAttr), src, typeOf(src), out);
+    }
+
+    @Override
+    public <T> void serializeAllExceptFilter(Writer writer, Object src, Class<T> filterClass,
+            Boolean cleanFilter, String... filterAttr) throws Exception {
+        toJson(filtered(filterClass, false, cleanFilter, filterAttr), src, typeOf(src), writer);
     }
     
     @Override
     public String serializeAllExceptFilter(Object src, String... filterAttr)
             throws Exception {
-        return gson
-                .addSerializationExclusionStrategy(
-                        exclude(null, filterAttr)).create().toJson(src);
+        return filtered(null, false, false, filterAttr).toJson(src);
     }
 
+    /**
+     * @param cleanFilter if <code>true</code> the filtered Gson is not cached
+     */
     @Override
-    public String serializeAllExceptFilter(Object src, Boolean notused,
+    public String serializeAllExceptFilter(Object src, Boolean cleanFilter,
             String... filterAttr) throws Exception {
-        return gson
-                .addSerializationExclusionStrategy(
-                        exclude(null, filterAttr)).create().toJson(src);
+        return filtered(null, false, cleanFilter, filterAttr).toJson(src);
     }
     
     @Override
@@ -204,7 +530,7 @@ public class GSONBuilderService extends AbstractLogEnabled implements
     }
 
     public JsonService registerTypeAdapter(Object serdeser, Type type) {
-        gson.registerTypeAdapter(type, serdeser);
+        changeBuilder(builder -> builder.registerTypeAdapter(type, serdeser));
         return this;
     }
     
@@ -213,20 +539,32 @@ public class GSONBuilderService extends AbstractLogEnabled implements
      * Note: Always use either this direct format call or the other adapter register call,
      * otherwise inconsistencies may occur!
      * 
-     * @param dfStr date format string
+     * If dates are formatted by {@link #JAVA_TIME}, the pattern is applied by a
+     * {@link DateTimeTypeAdapterFactory} in the configured zone, which formats without locking.
+     * 
+     * @param dfStr date format string, if formatted by {@link #JAVA_TIME} a date time pattern 
+     * or {@link DateTimeTypeAdapterFactory#EPOCH_MILLIS}
      */
     public void setDateFormat(final String dfStr) {
-        gson.setDateFormat(dfStr);
+        if (JAVA_TIME.equals(dateFormatType)) {
+            DateTimeTypeAdapterFactory factory = DateTimeTypeAdapterFactory.of(dfStr, dateZone);
+            changeBuilder(builder -> builder.registerTypeAdapterFactory(factory));
+        } else {
+            changeBuilder(builder -> builder.setDateFormat(dfStr));
+        }
     }
 
-    /* (non-Javadoc)
+    /**
+     * The {@link DateFormat} is not thread safe, it is locked by the {@link DateTypeAdapter}
+     * for each date. Prefer {@link #JAVA_TIME} and {@link #setDateFormat(String)}.
+     * 
      * @see org.apache.fulcrum.json.JsonService#setDateFormat(java.text.DateFormat)
      */
     @Override
     public void setDateFormat(final DateFormat df) {
         DateTypeAdapter dateTypeAdapter = new DateTypeAdapter();
         dateTypeAdapter.setCustomDateFormat(df);
-        gson.registerTypeAdapter(Date.class,dateTypeAdapter);
+        changeBuilder(builder -> builder.registerTypeAdapter(Date.class, dateTypeAdapter));
     }
 
     public void getJsonService() throws InstantiationException {
@@ -247,6 +585,25 @@ public class GSONBuilderService extends AbstractLogEnabled implements
                 false);
         if (configuredDateFormat != null) {
             this.dateFormat = configuredDateFormat.getValue();// DEFAULTDATEFORMAT);
+            this.dateFormatType = configuredDateFormat.getAttribute(TYPE, SIMPLE_DATE_FORMAT);
+            if (!SIMPLE_DATE_FORMAT.equals(dateFormatType) && !JAVA_TIME.equals(dateFormatType)) {
+                throw new ConfigurationException("Unknown date format type: " + dateFormatType, configuredDateFormat);
+            }
+            String zone = configuredDateFormat.getAttribute(ZONE, null);
+            if (zone != null) {
+                try {
+                    this.dateZone = ZoneId.of(zone);
+                } catch (DateTimeException e) {
+                    throw new ConfigurationException("Invalid zone: " + zone, configuredDateFormat, e);
+                }
+            }
+        }
+        if (JAVA_TIME.equals(dateFormatType)) {
+            try {
+                this.dateTimeAdapters = DateTimeTypeAdapterFactory.of(dateFormat, dateZone);
+            } catch (IllegalArgumentException e) {
+                throw new ConfigurationException("Invalid date format: " + dateFormat, configuredDateFormat, e);
+            }
         }
         final Configuration configuredAdapters = conf.getChild(GLOBAL_ADAPTERS,
                 true);
@@ -268,6 +625,13 @@ public class GSONBuilderService extends AbstractLogEnabled implements
         if (configuredjsonPath != null) {
             this.useJsonPath  = configuredjsonPath.getValueAsBoolean();
         }
+        final Configuration configuredFilterCache = conf.getChild(FILTER_CACHE, false);
+        if (configuredFilterCache != null) {
+            int maxEntries = configuredFilterCache.getAttributeAsInteger("maxEntries",
+                    DEFAULT_FILTER_CACHE_SIZE);
+            this.filterCacheMaxEntries = (maxEntries > 0) ? maxEntries : Integer.MAX_VALUE;
+        }
+        this.executorConf = conf.getChild(JsonExecutors.EXECUTOR, false);
     }
 
     /* (non-Javadoc)
@@ -276,11 +640,18 @@ public class GSONBuilderService extends AbstractLogEnabled implements
     @Override
     public void initialize() throws Exception {
         gson = new GsonBuilder();
+        state = new GsonState(gson.create(), filterCacheMaxEntries);
         getLogger().debug("initialized: gson:" + gson);
-        if (dateFormat != null) {
-            getLogger().info("setting date format to: " + dateFormat);
-            setDateFormat(new SimpleDateFormat(dateFormat));
-            //setDateFormat(dateFormat);
+        asyncService = new AsyncJsonService(this, JsonExecutors.fromConfiguration(executorConf));
+        getLogger().info("async executor: " + asyncService.getExecutor());
+        if (dateTimeAdapters != null) {
+            getLogger().info("setting date time format to: " + dateFormat + " in zone: " + dateZone);
+            changeBuilder(builder -> builder.registerTypeAdapterFactory(dateTimeAdapters));
+        } else if (dateFormat != null) {
+            getLogger().info("setting date format to: " + dateFormat + " in zone: " + dateZone);
+            SimpleDateFormat simpleDateFormat = new SimpleDateFormat(dateFormat);
+            simpleDateFormat.setTimeZone(TimeZone.getTimeZone(dateZone));
+            setDateFormat(simpleDateFormat);
         }
 
         if (adapters != null) {
@@ -314,11 +685,11 @@ public class GSONBuilderService extends AbstractLogEnabled implements
                 private Callable<Gson> gsonFuture = new Callable<Gson>() {
                     @Override
                     public Gson call() {
-                        return GSONBuilderService.this.gson.create();
+                        return gson();
                     }
                 };
 
-                private final JsonProvider jsonProvider = new GsonJsonProvider(GSONBuilderService.this.gson.create());
+                private final JsonProvider jsonProvider = new GsonJsonProvider(gson());
                 private final MappingProvider mappingProvider = new GsonMappingProvider(gsonFuture);
 
                 @Override
@@ -339,6 +710,147 @@ public class GSONBuilderService extends AbstractLogEnabled implements
         }
     }
 
+    /* (non-Javadoc)
+     * @see org.apache.avalon.framework.activity.Disposable#dispose()
+     */
+    @Override
+    public void dispose() {
+        if (asyncService != null) {
+            JsonExecutors.shutdown(asyncService.getExecutor());
+        }
+    }
+
+    /**
+     * @return the asynchronous facade running on the configured executor
+     */
+    @Override
+    public AsyncJsonService async() {
+        return asyncService;
+    }
+
+    /**
+     * @return the Gson built from the current configuration, it is immutable
+     *         and shared by all calls
+     */
+    Gson gson() {
+        return state.gson;
+    }
+
+    /**
+     * Changes the builder and publishes the newly built Gson, the filtered
+     * instances derived from the previous one are dropped. The builder is not
+     * thread safe, changes and builds are locked.
+     * 
+     * @param change the change of the builder
+     */
+    private void changeBuilder(Consumer<GsonBuilder> change) {
+        builderLock.lock();
+        try {
+            change.accept(gson);
+            state = new GsonState(gson.create(), filterCacheMaxEntries);
+        } finally {
+            builderLock.unlock();
+        }
+    }
+
+    /**
+     * Derives a Gson with the exclusion strategy of the filter from the current
+     * one, the builder is not changed. The derived instances are cached by
+     * filter, if the cache is full, the least recently used instance is
+     * evicted. The cache is guarded by the builder lock.
+     * 
+     * @param filterClass the filtered class, may be null
+     * @param include     if <code>true</code> only the attributes are
+     *                    serialized, otherwise they are excluded
+     * @param clean       if <code>true</code> the instance is not cached
+     * @param filterAttr  the filtered attributes
+     * @return the filtered Gson
+     */
+    private Gson filtered(Class<?> filterClass, boolean include, Boolean clean, String... filterAttr) {
+        GsonState current = state;
+        List<Object> key = filterKey(filterClass, include, filterAttr);
+        Gson filtered;
+        builderLock.lock();
+        try {
+            filtered = current.filtered.get(key);
+        } finally {
+            builderLock.unlock();
+        }
+        if (filtered != null) {
+            return filtered;
+        }
+        ExclusionStrategy strategy = include ? include(filterClass, filterAttr) : exclude(filterClass, filterAttr);
+        filtered = current.gson.newBuilder().addSerializationExclusionStrategy(strategy).create();
+        if (clean == null || !clean) {
+            builderLock.lock();
+            try {
+                Gson previous = current.filtered.putIfAbsent(key, filtered);
+                if (previous != null) {
+                    filtered = previous;
+                }
+            } finally {
+                builderLock.unlock();
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * @return the key of the filtered instance by filter class, include flag
+     *         and sorted attributes
+     */
+    private static List<Object> filterKey(Class<?> filterClass, boolean include, String... filterAttr) {
+        Set<String> attributes = (filterAttr != null) ? new TreeSet<>(Arrays.asList(filterAttr))
+                : Collections.<String>emptySet();
+        return Arrays.asList(filterClass, include, attributes);
+    }
+
+    /**
+     * @return <code>true</code> if the filtered instance is cached
+     */
+    boolean isFilterCached(Class<?> filterClass, boolean include, String... filterAttr) {
+        builderLock.lock();
+        try {
+            return state.filtered.containsKey(filterKey(filterClass, include, filterAttr));
+        } finally {
+            builderLock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of cached filtered instances
+     */
+    int getFilterCacheSize() {
+        builderLock.lock();
+        try {
+            return state.filtered.size();
+        } finally {
+            builderLock.unlock();
+        }
+    }
+
+    /**
+     * The built Gson and the filtered instances derived from it.
+     */
+    private static final class GsonState {
+        private final Gson gson;
+        // by filter class, include flag and sorted attributes in access order,
+        // guarded by the builder lock
+        private final Map<List<Object>, Gson> filtered;
+
+        GsonState(Gson gson, int maxEntries) {
+            this.gson = gson;
+            this.filtered = new LinkedHashMap<List<Object>, Gson>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<Object>, Gson> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+    }
+
     /**
      * Simple Exclusion strategy to filter class or fields used by this service
      * for serialization (not yet deserialization).
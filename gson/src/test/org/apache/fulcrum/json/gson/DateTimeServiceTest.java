@@ -0,0 +1,100 @@
+package org.apache.fulcrum.json.gson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+import org.apache.fulcrum.json.JsonService;
+import org.apache.fulcrum.json.Rectangle;
+import org.apache.fulcrum.testcontainer.BaseUnit4Test;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * GSON JSON Test with dates formatted by java.time and a small filter cache
+ *
+ * @author gk
+ * @version $Id$
+ */
+public class DateTimeServiceTest extends BaseUnit4Test {
+    private JsonService sc = null;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        setConfigurationFileName("src/test/DateTimeComponentConfig.xml");
+        sc = (JsonService) this.lookup( JsonService.ROLE );
+    }
+
+    @Test
+    public void testSerializeJavaTimeDates() throws Exception {
+        //MM:dd:yyyy
+        Date date = new GregorianCalendar(2021, Calendar.JUNE, 1).getTime();
+        assertEquals("\"06:01:2021\"", sc.ser(date));
+        assertEquals(date, sc.deSer("\"06:01:2021\"", Date.class));
+        LocalDateTime dateTime = LocalDateTime.of(2021, 6, 1, 12, 30);
+        assertEquals("\"2021-06-01T12:30:00\"", sc.ser(dateTime));
+        assertEquals(dateTime, sc.deSer("\"2021-06-01T12:30:00\"", LocalDateTime.class));
+        assertEquals(LocalDate.of(2021, 6, 1), sc.deSer("\"2021-06-01\"", LocalDate.class));
+        ((GSONBuilderService) sc).setDateFormat(DateTimeTypeAdapterFactory.EPOCH_MILLIS);
+        assertEquals("1000", sc.ser(new Date(1000L)));
+        assertEquals(new Date(1000L), sc.deSer("1000", Date.class));
+        assertEquals(Instant.ofEpochMilli(1000L), sc.deSer("1000", Instant.class));
+        assertEquals("{\"date\":1000}", sc.ser(Collections.singletonMap("date", new Date(1000L))));
+    }
+
+    @Test
+    public void testSerializeSqlDates() throws Exception {
+        Date date = new GregorianCalendar(2021, Calendar.JUNE, 1).getTime();
+        Timestamp timestamp = new Timestamp(date.getTime());
+        assertEquals("\"06:01:2021\"", sc.ser(timestamp));
+        assertEquals(timestamp, sc.deSer("\"06:01:2021\"", Timestamp.class));
+        java.sql.Date sqlDate = new java.sql.Date(date.getTime());
+        assertEquals("\"06:01:2021\"", sc.ser(sqlDate));
+        assertEquals(sqlDate, sc.deSer("\"06:01:2021\"", java.sql.Date.class));
+    }
+
+    @Test
+    public void testFilterCacheEvictsLeastRecentlyUsed() throws Exception {
+        GSONBuilderService service = (GSONBuilderService) sc;
+        Rectangle rectangle = new Rectangle(5, 10);
+        assertEquals("{\"w\":5}", sc.serializeOnlyFilter(rectangle, "w"));
+        assertEquals("{\"h\":10}", sc.serializeOnlyFilter(rectangle, "h"));
+        // the hot filter is used again before the cache is full
+        assertEquals("{\"w\":5}", sc.serializeOnlyFilter(rectangle, "w"));
+        assertEquals("{\"w\":5,\"h\":10}", sc.serializeAllExceptFilter(rectangle, "name"));
+        assertEquals(2, service.getFilterCacheSize());
+        assertTrue(service.isFilterCached(null, true, "w"));
+        assertFalse(service.isFilterCached(null, true, "h"));
+        // filters inserted after the cache is full are cached too
+        assertTrue(service.isFilterCached(null, false, "name"));
+    }
+}
@@ -20,18 +20,35 @@ package org.apache.fulcrum.json.gson;
  */
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.Date;
+import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
 
 import org.apache.avalon.framework.activity.Initializable;
+import org.apache.fulcrum.json.BatchResult;
+import org.apache.fulcrum.json.CloseableIterator;
 import org.apache.fulcrum.json.JsonService;
 import org.apache.fulcrum.json.Rectangle;
 import org.apache.fulcrum.json.TestClass;
@@ -39,6 +56,7 @@ import org.apache.fulcrum.testcontainer.BaseUnit4Test;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
 /**
@@ -62,6 +80,63 @@ public class DefaultServiceTest extends BaseUnit4Test {
         assertEquals("Serialization failed ", preDefinedOutput, serJson);
     }
     @Test
+    public void testSerializeToStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sc.ser(out, new TestClass("mytest"));
+        assertEquals("Serialization failed ", preDefinedOutput, new String(out.toByteArray(), StandardCharsets.UTF_8));
+        StringWriter writer = new StringWriter();
+        sc.ser(writer, new TestClass("mytest"));
+        assertEquals("Serialization failed ", preDefinedOutput, writer.toString());
+    }
+    @Test
+    public void testDeserializeBytes() throws Exception {
+        byte[] json = ("  " + preDefinedOutput).getBytes(StandardCharsets.UTF_8);
+        TestClass fromStream = sc.deSer(new ByteArrayInputStream(json), TestClass.class);
+        assertEquals("mytest", fromStream.getName());
+        TestClass fromBytes = sc.deSer(json, 2, json.length - 2, TestClass.class);
+        assertEquals("mytest", fromBytes.getName());
+        ByteBuffer buffer = ByteBuffer.wrap(json);
+        buffer.position(2);
+        assertEquals("mytest", sc.deSer(buffer, TestClass.class).getName());
+        assertEquals(2, buffer.position());
+    }
+    @Test
+    public void testDeserializeIterator() throws Exception {
+        List<TestClass> list = new ArrayList<TestClass>();
+        for (int i = 0; i < 3; i++) {
+            list.add(new TestClass("mytest" + i));
+        }
+        byte[] json = sc.ser(list).getBytes(StandardCharsets.UTF_8);
+        int count = 0;
+        try (CloseableIterator<TestClass> elements = sc.deSerIterator(new ByteArrayInputStream(json), TestClass.class)) {
+            while (elements.hasNext()) {
+                assertEquals("mytest" + count++, elements.next().getName());
+            }
+        }
+        assertEquals(3, count);
+        try (Stream<TestClass> elements = sc.deSerStream(new ByteArrayInputStream(json), TestClass.class)) {
+            assertEquals(3, elements.filter(e -> e.getName().startsWith("mytest")).count());
+        }
+    }
+    @Test
+    public void testJsonLines() throws Exception {
+        List<TestClass> list = new ArrayList<TestClass>();
+        for (int i = 0; i < 3; i++) {
+            list.add(new TestClass("mytest" + i));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sc.serLines(out, list.iterator());
+        String lines = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        assertEquals(sc.ser(list.get(0)) + "\n" + sc.ser(list.get(1)) + "\n" + sc.ser(list.get(2)) + "\n", lines);
+        int count = 0;
+        try (CloseableIterator<TestClass> elements = sc.deSerLines(new ByteArrayInputStream(out.toByteArray()), TestClass.class)) {
+            while (elements.hasNext()) {
+                assertEquals("mytest" + count++, elements.next().getName());
+            }
+        }
+        assertEquals(3, count);
+    }
+    @Test
     public void testSerializeExcludeNothing() throws Exception {
         String serJson = sc.serializeAllExceptFilter(new TestClass("mytest"),
                 (String[]) null);
@@ -119,6 +194,17 @@ public class DefaultServiceTest extends BaseUnit4Test {
                 serJson.matches("\\{\"date\":\"\\d\\d/\\d\\d/\\d{4}\"\\}"));
     }
     @Test
+    public void testSetDateFormatString() throws Exception {
+        //MM:dd:yyyy
+        Date date = new GregorianCalendar(2021, Calendar.JUNE, 1).getTime();
+        assertEquals("\"06:01:2021\"", sc.ser(date));
+        assertEquals(date, sc.deSer("\"06:01:2021\"", Date.class));
+        // applied by Gson to the java.sql types too
+        ((GSONBuilderService) sc).setDateFormat("yyyy-MM-dd");
+        assertEquals("\"2021-06-01\"", sc.ser(new Timestamp(date.getTime())));
+        assertEquals(new java.sql.Date(date.getTime()), sc.deSer("\"2021-06-01\"", java.sql.Date.class));
+    }
+    @Test
     // does not seerialize size
     public void testSerializeCollection() throws Exception {
         List<Rectangle> rectList = new ArrayList<Rectangle>();
@@ -253,6 +339,71 @@ public class DefaultServiceTest extends BaseUnit4Test {
         String rectangle = sc.serializeOnlyFilter(filteredRectangle);
         System.out.println( "rectangle"+ rectangle );
     }
+    @Test
+    public void testDeserializeAll() throws Exception {
+        List<Object> payloads = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            String json = sc.ser(new Rectangle(i, i * 2));
+            payloads.add((i % 2 == 0) ? json : json.getBytes(StandardCharsets.UTF_8));
+        }
+        payloads.add(Integer.valueOf(1));
+        BatchResult<Rectangle> result = sc.deSerAll(payloads, Rectangle.class);
+        assertEquals(101, result.size());
+        assertEquals(99 * 2, result.get(99).getH());
+        assertEquals(1, result.getErrors().size());
+        assertTrue(result.getErrors().get(100) instanceof IllegalArgumentException);
+    }
+    @Test
+    public void testSerializeAsync() throws Exception {
+        CompletableFuture<String> json = sc.async().serAsync(new Rectangle(5, 10));
+        CompletableFuture<Rectangle> rectangle = json.thenCompose(
+                s -> sc.async().deSerAsync(s, Rectangle.class));
+        assertEquals(10, rectangle.get().getH());
+        try {
+            sc.async().deSerAsync("{\"w\":", Rectangle.class).join();
+            fail("incomplete JSON");
+        } catch (CompletionException e) {
+            assertNotNull(e.getCause());
+        }
+    }
+    @Test
+    public void testSerializeFiltersPerCall() throws Exception {
+        GSONBuilderService service = (GSONBuilderService) sc;
+        Rectangle rectangle = new Rectangle(5, 10);
+        rectangle.setName("jim");
+        String json = sc.ser(rectangle);
+        assertEquals("{\"w\":5,\"h\":10,\"name\":\"jim\"}", json);
+        int cached = service.getFilterCacheSize();
+        // disjunct filters do not change each other or later calls
+        assertEquals("{\"w\":5}", sc.serializeOnlyFilter(rectangle, "w"));
+        assertEquals("{\"h\":10}", sc.serializeOnlyFilter(rectangle, "h"));
+        assertEquals(json, sc.ser(rectangle));
+        // the same filter with another order of the attributes is cached once
+        assertEquals("{\"name\":\"jim\"}", sc.serializeAllExceptFilter(rectangle, "w", "h"));
+        assertEquals("{\"name\":\"jim\"}", sc.serializeAllExceptFilter(rectangle, "h", "w"));
+        assertEquals(cached + 3, service.getFilterCacheSize());
+        // clean filters are not cached
+        assertEquals("{\"w\":5}", sc.serializeOnlyFilter(rectangle, (Class<Rectangle>) null, true, "w"));
+        assertEquals("{\"h\":10}", sc.serializeAllExceptFilter(rectangle, String.class, true, "w"));
+        assertEquals(cached + 3, service.getFilterCacheSize());
+        assertEquals("{\"h\":10}", sc.serializeAllExceptFilter(rectangle, String.class, false, "w"));
+        assertEquals(cached + 4, service.getFilterCacheSize());
+        // changing the configuration drops the filtered instances
+        sc.addAdapter("Test Adapter", TestClass.class, new TestJsonSerializer());
+        assertEquals(0, service.getFilterCacheSize());
+    }
+    @Test
+    public void testGsonReused() throws Exception {
+        GSONBuilderService service = (GSONBuilderService) sc;
+        Gson gson = service.gson();
+        sc.ser(new TestClass("mytest"));
+        sc.deSer(sc.ser(new Rectangle(5, 10)), Rectangle.class);
+        assertSame(gson, service.gson());
+        // changing the configuration builds a new instance
+        sc.addAdapter("Test Adapter", TestClass.class, new TestJsonSerializer());
+        assertNotSame(gson, service.gson());
+        assertEquals("{\"n\":\"mytest\",\"p\":\"Config.xml\",\"c\":[]}", sc.ser(new TestClass("mytest")));
+    }
 
 
 
@@ -0,0 +1,331 @@
+package org.apache.fulcrum.json.jackson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Thread safe map with a maximum number of entries and an optional time to
+ * live. Reads are not locked. If the maximum is exceeded, expired entries and
+ * then the least frequently used entries are evicted in a batch down to 7/8 of
+ * the maximum, so that the entries are scanned once per batch and not on each
+ * insert. The frequencies are halved after each batch to let new entries
+ * compete with formerly used ones. A single thread evicts, concurrent inserts
+ * do not wait for it and may exceed the maximum until the batch is finished.
+ * Eviction listeners are notified for entries, which are evicted or expired,
+ * but not for entries removed explicitly.
+ *
+ * Iterating the map works on a snapshot, null keys and values are not
+ * supported.
+ *
+ * @author gk
+ * @version $Id$
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class BoundedCache<K, V> extends AbstractMap<K, V> {
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private static final int MAX_FREQUENCY = 1 << 16;
+
+    private final Map<K, Node<V>> entries = new ConcurrentHashMap<>();
+
+    private final CopyOnWriteArrayList<BiConsumer<? super K, ? super V>> evictionListeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private volatile int maxEntries;
+
+    private volatile long timeToLiveNanos;
+
+    public BoundedCache() {
+        this(DEFAULT_MAX_ENTRIES, 0);
+    }
+
+    /**
+     * @param maxEntries     the maximum number of entries, unbounded if not
+     *                       positive
+     * @param timeToLiveMillis the time to live in milliseconds after inserting
+     *                       an entry, no expiration if not positive
+     */
+    public BoundedCache(int maxEntries, long timeToLiveMillis) {
+        setLimits(maxEntries, timeToLiveMillis);
+    }
+
+    /**
+     * @param maxEntries     the maximum number of entries, unbounded if not
+     *                       positive
+     * @param timeToLiveMillis the time to live in milliseconds after inserting
+     *                       an entry, no expiration if not positive
+     */
+    public void setLimits(int maxEntries, long timeToLiveMillis) {
+        this.maxEntries = (maxEntries > 0) ? maxEntries : Integer.MAX_VALUE;
+        this.timeToLiveNanos = (timeToLiveMillis > 0) ? TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis) : 0;
+        evict();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getTimeToLiveMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(timeToLiveNanos);
+    }
+
+    /**
+     * @param listener called with key and value of each evicted or expired entry
+     */
+    public void addEvictionListener(BiConsumer<? super K, ? super V> listener) {
+        evictionListeners.add(listener);
+    }
+
+    /**
+     * @return the number of evicted or expired entries
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public V get(Object key) {
+        Node<V> node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (isExpired(node, System.nanoTime())) {
+            evict(key, node);
+            return null;
+        }
+        node.touch();
+        return node.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        Node<V> old = entries.put(key, new Node<>(Objects.requireNonNull(value)));
+        if (old == null) {
+            evictIfFull();
+        }
+        return (old != null) ? old.value : null;
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        boolean[] created = new boolean[1];
+        Node<V> node = entries.compute(key, (k, current) -> {
+            if (current != null && !isExpired(current, System.nanoTime())) {
+                return current;
+            }
+            created[0] = true;
+            return new Node<>(Objects.requireNonNull(mappingFunction.apply(k)));
+        });
+        if (created[0]) {
+            evictIfFull();
+        }
+        return node.value;
+    }
+
+    @Override
+    public V remove(Object key) {
+        Node<V> node = entries.remove(key);
+        return (node != null) ? node.value : null;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        Node<V> node = entries.get(key);
+        return node != null && Objects.equals(node.value, value) && entries.remove(key, node);
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        long now = System.nanoTime();
+        Set<Entry<K, V>> snapshot = new LinkedHashSet<>();
+        for (Entry<K, Node<V>> entry : entries.entrySet()) {
+            if (!isExpired(entry.getValue(), now)) {
+                snapshot.add(new SimpleImmutableEntry<>(entry.getKey(), entry.getValue().value));
+            }
+        }
+        return Collections.unmodifiableSet(snapshot);
+    }
+
+    /**
+     * The thread holding the lock checks the size again after releasing it, as
+     * concurrent inserts have not waited for it.
+     */
+    private void evictIfFull() {
+        while (entries.size() > maxEntries && evictionLock.tryLock()) {
+            try {
+                evictEntries();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Locked by a {@link ReentrantLock}, which does not pin a virtual thread to
+     * its carrier.
+     */
+    private void evict() {
+        evictionLock.lock();
+        try {
+            evictEntries();
+        } finally {
+            evictionLock.unlock();
+        }
+        evictIfFull();
+    }
+
+    /**
+     * Removes expired entries and, if still exceeding the maximum, the least
+     * frequently used (and then the oldest inserted) entries down to the low-water mark.
+     */
+    private void evictEntries() {
+        long now = System.nanoTime();
+        List<Candidate<K, V>> candidates = new ArrayList<>(entries.size());
+        for (Entry<K, Node<V>> entry : entries.entrySet()) {
+            if (isExpired(entry.getValue(), now)) {
+                evict(entry.getKey(), entry.getValue());
+            } else {
+                candidates.add(new Candidate<>(entry.getKey(), entry.getValue()));
+            }
+        }
+        int max = maxEntries;
+        if (candidates.size() <= max) {
+            return;
+        }
+        // entries inserted after the scan are left to the next batch
+        int excess = candidates.size() - (max - (max >> 3));
+        // the frequencies are fixed by the candidates while sorting
+        Collections.sort(candidates);
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate<K, V> candidate = candidates.get(i);
+            if (i < excess) {
+                evict(candidate.key, candidate.node);
+            } else {
+                candidate.node.age();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evict(Object key, Node<V> node) {
+        if (entries.remove(key, node)) {
+            evictions.increment();
+            for (BiConsumer<? super K, ? super V> listener : evictionListeners) {
+                listener.accept((K) key, node.value);
+            }
+        }
+    }
+
+    private boolean isExpired(Node<V> node, long now) {
+        long ttl = timeToLiveNanos;
+        return ttl > 0 && now - node.created > ttl;
+    }
+
+    private static final class Node<V> {
+
+        final V value;
+
+        final long created = System.nanoTime();
+
+        final AtomicInteger frequency = new AtomicInteger(1);
+
+        Node(V value) {
+            this.value = value;
+        }
+
+        void touch() {
+            if (frequency.get() < MAX_FREQUENCY) {
+                frequency.incrementAndGet();
+            }
+        }
+
+        void age() {
+            frequency.updateAndGet(f -> f >> 1);
+        }
+    }
+
+    /**
+     * An entry with the frequency at the time of the scan, ordered from the
+     * least frequently used and then oldest inserted one.
+     */
+    private static final class Candidate<K, V> implements Comparable<Candidate<K, V>> {
+
+        final K key;
+
+        final Node<V> node;
+
+        final int frequency;
+
+        Candidate(K key, Node<V> node) {
+            this.key = key;
+            this.node = node;
+            this.frequency = node.frequency.get();
+        }
+
+        @Override
+        public int compareTo(Candidate<K, V> other) {
+            if (frequency != other.frequency) {
+                return Integer.compare(frequency, other.frequency);
+            }
+            return Long.compare(node.created - other.node.created, 0);
+        }
+    }
+}
@@ -20,64 +20,144 @@ package org.apache.fulcrum.json.jackson;
  */
 
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 
 import org.apache.avalon.framework.logger.LogEnabled;
 import org.apache.avalon.framework.logger.Logger;
+import org.apache.fulcrum.json.jackson.filters.ClassFilterProvider;
+import org.apache.fulcrum.json.jackson.filters.FilterKey;
 
 import com.fasterxml.jackson.databind.AnnotationIntrospector;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
-import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 
 public class CacheService implements LogEnabled {
 
     AnnotationIntrospector primary;
-    Map<String, FilterProvider> filters =  new ConcurrentHashMap<>();
+    Map<String, FilterProvider> filters;
+    // compiled filters by their complete specification
+    BoundedCache<FilterKey, FilterProvider> compiledFilters = new BoundedCache<>();
+    // set if the mapper configuration changed (mixins, modules), filters never require to flush serializers
+    private final AtomicBoolean serializersInvalid = new AtomicBoolean(false);
     
     private static Logger logger;
     
     public CacheService(AnnotationIntrospector primary) {
         this.primary = primary;
+        compiledFilters.addEvictionListener(this::filterEvicted);
+        this.filters = new BoundedCache<>();
     }
 
-    <T> void removeFilter(Class<T> filterClass, Boolean excludeType) {
+    /**
+     * Limits the compiled filters and the filters registered by class name.
+     * 
+     * @param maxEntries       the maximum number of filters in each cache,
+     *                         unbounded if not positive
+     * @param timeToLiveMillis the time to live of a filter in milliseconds, no
+     *                         expiration if not positive
+     */
+    void setLimits(int maxEntries, long timeToLiveMillis) {
+        compiledFilters.setLimits(maxEntries, timeToLiveMillis);
+        if (filters instanceof BoundedCache) {
+            ((BoundedCache<String, FilterProvider>) filters).setLimits(maxEntries, timeToLiveMillis);
+        }
+    }
+
+    /**
+     * @param listener is notified with each evicted or expired compiled filter,
+     *                 e.g. to remove objects, which are built with the filter
+     */
+    void addEvictionListener(BiConsumer<? super FilterKey, ? super FilterProvider> listener) {
+        compiledFilters.addEvictionListener(listener);
+    }
+
+    /**
+     * Removes the registrations of the evicted filter by class name. The
+     * introspector holds no state of the service, filters are applied per call,
+     * classes registered there belong to the user and are kept.
+     */
+    private void filterEvicted(FilterKey key, FilterProvider filter) {
+        logger.debug("evicted filter: " + key);
+        for (Map.Entry<String, FilterProvider> entry : filters.entrySet()) {
+            if (entry.getValue() == filter) {
+                filters.remove(entry.getKey(), filter);
+            }
+        }
+    }
+
+    /**
+     * Each filter specification is compiled once and shared by all threads.
+     * 
+     * @param key the filter specification
+     * @return the cached or a new compiled filter
+     */
+    FilterProvider getCompiledFilter(FilterKey key) {
+        FilterProvider filter = compiledFilters.get(key);
+        if (filter == null) {
+            logger.debug("compiling filter: " + key);
+            filter = compiledFilters.computeIfAbsent(key, ClassFilterProvider::forKey);
+        }
+        return filter;
+    }
+
+    /**
+     * Filters are immutable and applied per call, removing the cached filter
+     * is sufficient, the introspector has no state for it.
+     * 
+     * @param filterClass the class the filter is cached for
+     */
+    <T> void removeFilter(Class<T> filterClass) {
         if (filterClass == null)
             return;
-        if (filters.containsKey(filterClass.getName())) {
-            logger.debug("removing filter: " + filterClass.getName());
-            removeCustomIntrospectorWithExternalFilterId(filterClass, excludeType);
-            SimpleFilterProvider smpfilter = (SimpleFilterProvider) filters
-                    .get(filterClass.getName());
-            smpfilter.removeFilter(filterClass.getName());
-            filters.remove(filterClass.getName());
+        if (filters.remove(filterClass.getName()) != null) {
+            logger.debug("removed filter: " + filterClass.getName());
         }
     }
-    
-    <T> void removeCustomIntrospectorWithExternalFilterId(
-            Class<T> externalFilterId, Boolean excludeType) {
-        if (primary instanceof SimpleNameIntrospector && externalFilterId != null) {
-                ((SimpleNameIntrospector) primary)
-                        .removeFilteredClass(externalFilterId);
-                if (excludeType) {
-                    ((SimpleNameIntrospector) primary)
-                    .removeExternalFilterExcludeClass(externalFilterId);
-                }
-        }
+
+    /**
+     * Marks the cached serializers as outdated, if the mapper might be changed
+     * outside of the service. The next
+     * {@link #cleanSerializerCache(ObjectMapper)} flushes them.
+     */
+    void invalidateSerializers() {
+        serializersInvalid.set(true);
     }
 
+    /**
+     * Flushes the cached serializers of the mapper, only if
+     * {@link #invalidateSerializers()} was called before. Otherwise the
+     * serializers of all types are kept.
+     * 
+     * @param mapper the mapper
+     */
     void cleanSerializerCache(ObjectMapper mapper) {
+        if (serializersInvalid.getAndSet(false)) {
+            flushSerializerCache(mapper);
+        }
+    }
+
+    /**
+     * Flushes the cached serializers of all types, required after changing the
+     * mapper configuration, e.g. adding a mixin or registering a module. Jackson
+     * does not support to evict the serializers of single types.
+     * 
+     * The serializer provider is replaced by a copy with an empty cache, as
+     * {@link DefaultSerializerProvider#flushCachedSerializers()} keeps the
+     * read-only lookup map of the cache, which may still contain the outdated
+     * serializers.
+     * 
+     * @param mapper the mapper
+     */
+    void flushSerializerCache(ObjectMapper mapper) {
+        serializersInvalid.set(false);
         if (mapper.getSerializerProvider() instanceof DefaultSerializerProvider) {
-            int cachedSerProvs = ((DefaultSerializerProvider) mapper
-                    .getSerializerProvider()).cachedSerializersCount();
-            if (cachedSerProvs > 0) {
-//                getLogger()
-//                        .debug("flushing cachedSerializersCount:"
-//                                + cachedSerProvs);
-                ((DefaultSerializerProvider) mapper.getSerializerProvider())
-                        .flushCachedSerializers();
-            }
+            DefaultSerializerProvider provider = (DefaultSerializerProvider) mapper.getSerializerProvider();
+//            getLogger()
+//                    .debug("flushing cachedSerializersCount:"
+//                            + provider.cachedSerializersCount());
+            mapper.setSerializerProvider(provider.copy());
         }
     }
 
@@ -85,10 +165,18 @@ public class CacheService implements LogEnabled {
         return filters;
     }
 
+    /**
+     * @param filters the filters by class name, which are not limited, if not a
+     *                {@link BoundedCache}
+     */
     public void setFilters(Map<String, FilterProvider> filters) {
         this.filters = filters;
     }
 
+    public Map<FilterKey, FilterProvider> getCompiledFilters() {
+        return compiledFilters;
+    }
+
     @Override
     public void enableLogging(Logger logger) {
         CacheService.logger = logger;        
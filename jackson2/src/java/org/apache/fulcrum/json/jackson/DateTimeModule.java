@@ -0,0 +1,283 @@
+package org.apache.fulcrum.json.jackson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.Date;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.DateDeserializers;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.DateSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+/**
+ * Serializers and deserializers of {@link Date}, {@link Instant} and the local,
+ * offset and zoned java.time types.
+ *
+ * Dates and instants are formatted by the immutable {@link DateTimeFormatter}
+ * of the context attribute {@link #DATE_TIME_FORMATTER}, which is set as
+ * default attribute of the mapper or per call on a reader or writer. Unlike the
+ * {@link java.text.DateFormat} of the mapper, it is not cloned for each call.
+ * Without the attribute, dates are handled by the defaults of Jackson. The
+ * other java.time types are always written in ISO-8601.
+ *
+ * Properties with a {@link com.fasterxml.jackson.annotation.JsonFormat}
+ * annotation are handled by the date (de)serializers of Jackson.
+ *
+ * @author gk
+ * @version $Id$
+ */
+public class DateTimeModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Context attribute of the {@link DateTimeFormatter} of dates and instants.
+     */
+    public static final String DATE_TIME_FORMATTER = DateTimeModule.class.getName() + ".formatter";
+
+    public DateTimeModule() {
+        super(DateTimeModule.class.getSimpleName());
+        addSerializer(Date.class, new FormattedDateSerializer());
+        addDeserializer(Date.class, new FormattedDateDeserializer());
+        addSerializer(Instant.class, new InstantSerializer());
+        addDeserializer(Instant.class, new InstantDeserializer());
+        addIso(LocalDate.class, DateTimeFormatter.ISO_LOCAL_DATE, LocalDate::parse);
+        addIso(LocalDateTime.class, DateTimeFormatter.ISO_LOCAL_DATE_TIME, LocalDateTime::parse);
+        addIso(LocalTime.class, DateTimeFormatter.ISO_LOCAL_TIME, LocalTime::parse);
+        addIso(OffsetDateTime.class, DateTimeFormatter.ISO_OFFSET_DATE_TIME, OffsetDateTime::parse);
+        addIso(ZonedDateTime.class, DateTimeFormatter.ISO_ZONED_DATE_TIME, ZonedDateTime::parse);
+    }
+
+    private <T extends TemporalAccessor> void addIso(Class<T> type, DateTimeFormatter formatter,
+            Function<String, T> parse) {
+        addSerializer(type, new IsoSerializer<>(type, formatter));
+        addDeserializer(type, new IsoDeserializer<>(type, parse));
+    }
+
+    /**
+     * @param pattern the pattern
+     * @param zone    the zone of dates and instants
+     * @return the formatter to be set as {@link #DATE_TIME_FORMATTER}
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public static DateTimeFormatter formatter(String pattern, ZoneId zone) {
+        return DateTimeFormatter.ofPattern(pattern).withZone(zone);
+    }
+
+    /**
+     * Missing fields are completed like {@link java.text.SimpleDateFormat}
+     * does: the date with the epoch, the time with midnight and the zone with
+     * the one of the formatter.
+     */
+    private static Instant parse(DateTimeFormatter formatter, String text) {
+        TemporalAccessor parsed = formatter.parse(text);
+        LocalDate date = parsed.query(TemporalQueries.localDate());
+        LocalTime time = parsed.query(TemporalQueries.localTime());
+        ZoneId zone = parsed.query(TemporalQueries.zone());
+        if (zone == null) {
+            zone = (formatter.getZone() != null) ? formatter.getZone() : ZoneId.systemDefault();
+        }
+        return ZonedDateTime.of((date != null) ? date : LocalDate.ofEpochDay(0),
+                (time != null) ? time : LocalTime.MIDNIGHT, zone).toInstant();
+    }
+
+    private static final class FormattedDateSerializer extends StdScalarSerializer<Date>
+            implements ContextualSerializer {
+
+        private static final long serialVersionUID = 1L;
+
+        FormattedDateSerializer() {
+            super(Date.class);
+        }
+
+        @Override
+        public void serialize(Date value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            DateTimeFormatter formatter = (DateTimeFormatter) provider.getAttribute(DATE_TIME_FORMATTER);
+            if (formatter == null || provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+                provider.defaultSerializeDateValue(value, gen);
+                return;
+            }
+            gen.writeString(formatter.format(value.toInstant()));
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+                throws JsonMappingException {
+            // the default is returned, if the property has no format
+            JsonSerializer<?> annotated = DateSerializer.instance.createContextual(provider, property);
+            return (annotated != DateSerializer.instance) ? annotated : this;
+        }
+    }
+
+    private static final class FormattedDateDeserializer extends StdScalarDeserializer<Date>
+            implements ContextualDeserializer {
+
+        private static final long serialVersionUID = 1L;
+
+        FormattedDateDeserializer() {
+            super(Date.class);
+        }
+
+        @Override
+        public Date deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            DateTimeFormatter formatter = (DateTimeFormatter) ctxt.getAttribute(DATE_TIME_FORMATTER);
+            if (formatter == null || !p.hasToken(JsonToken.VALUE_STRING)) {
+                return _parseDate(p, ctxt);
+            }
+            String text = p.getText().trim();
+            if (text.isEmpty()) {
+                return null;
+            }
+            try {
+                return Date.from(parse(formatter, text));
+            } catch (DateTimeException e) {
+                return (Date) ctxt.handleWeirdStringValue(handledType(), text, e.getMessage());
+            }
+        }
+
+        @Override
+        public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property)
+                throws JsonMappingException {
+            JsonDeserializer<?> annotated = DateDeserializers.DateDeserializer.instance.createContextual(ctxt,
+                    property);
+            return (annotated != DateDeserializers.DateDeserializer.instance) ? annotated : this;
+        }
+    }
+
+    private static final class InstantSerializer extends StdScalarSerializer<Instant> {
+
+        private static final long serialVersionUID = 1L;
+
+        InstantSerializer() {
+            super(Instant.class);
+        }
+
+        @Override
+        public void serialize(Instant value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+                gen.writeNumber(value.toEpochMilli());
+                return;
+            }
+            DateTimeFormatter formatter = (DateTimeFormatter) provider.getAttribute(DATE_TIME_FORMATTER);
+            gen.writeString(((formatter != null) ? formatter : DateTimeFormatter.ISO_INSTANT).format(value));
+        }
+    }
+
+    private static final class InstantDeserializer extends StdScalarDeserializer<Instant> {
+
+        private static final long serialVersionUID = 1L;
+
+        InstantDeserializer() {
+            super(Instant.class);
+        }
+
+        @Override
+        public Instant deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+                return Instant.ofEpochMilli(p.getLongValue());
+            }
+            if (!p.hasToken(JsonToken.VALUE_STRING)) {
+                return (Instant) ctxt.handleUnexpectedToken(handledType(), p);
+            }
+            String text = p.getText().trim();
+            if (text.isEmpty()) {
+                return null;
+            }
+            DateTimeFormatter formatter = (DateTimeFormatter) ctxt.getAttribute(DATE_TIME_FORMATTER);
+            try {
+                return (formatter != null) ? parse(formatter, text) : Instant.parse(text);
+            } catch (DateTimeException e) {
+                return (Instant) ctxt.handleWeirdStringValue(handledType(), text, e.getMessage());
+            }
+        }
+    }
+
+    private static final class IsoSerializer<T extends TemporalAccessor> extends StdScalarSerializer<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient DateTimeFormatter formatter;
+
+        IsoSerializer(Class<T> type, DateTimeFormatter formatter) {
+            super(type);
+            this.formatter = formatter;
+        }
+
+        @Override
+        public void serialize(T value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeString(formatter.format(value));
+        }
+    }
+
+    private static final class IsoDeserializer<T> extends StdScalarDeserializer<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Function<String, T> parse;
+
+        IsoDeserializer(Class<T> type, Function<String, T> parse) {
+            super(type);
+            this.parse = parse;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.hasToken(JsonToken.VALUE_STRING)) {
+                return (T) ctxt.handleUnexpectedToken(handledType(), p);
+            }
+            String text = p.getText().trim();
+            if (text.isEmpty()) {
+                return null;
+            }
+            try {
+                return parse.apply(text);
+            } catch (DateTimeException e) {
+                return (T) ctxt.handleWeirdStringValue(handledType(), text, e.getMessage());
+            }
+        }
+    }
+}
@@ -19,15 +19,42 @@ package org.apache.fulcrum.json.jackson;
  */
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.avalon.framework.activity.Disposable;
 import org.apache.avalon.framework.activity.Initializable;
 import org.apache.avalon.framework.configuration.Configurable;
 import org.apache.avalon.framework.configuration.Configuration;
@@ -35,10 +62,17 @@ import org.apache.avalon.framework.configuration.ConfigurationException;
 import org.apache.avalon.framework.logger.AbstractLogEnabled;
 import org.apache.avalon.framework.logger.LogEnabled;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.fulcrum.json.AsyncJsonService;
+import org.apache.fulcrum.json.CloseableIterator;
+import org.apache.fulcrum.json.JsonExecutors;
 import org.apache.fulcrum.json.JsonService;
+import org.apache.fulcrum.json.jackson.filters.ClassFilterProvider;
 import org.apache.fulcrum.json.jackson.filters.CustomModuleWrapper;
+import org.apache.fulcrum.json.jackson.filters.FilterKey;
 import org.apache.fulcrum.json.jackson.jsonpath.DefaultJsonPathWrapper;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonParser.Feature;
@@ -46,15 +80,19 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.SerializableString;
 import com.fasterxml.jackson.core.io.CharacterEscapes;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import com.fasterxml.jackson.databind.AnnotationIntrospector;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectMapper.DefaultTyping;
 import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.cfg.ConfigFeature;
@@ -62,9 +100,7 @@ import com.fasterxml.jackson.databind.introspect.AnnotationIntrospectorPair;
 import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.ser.FilterProvider;
-import com.fasterxml.jackson.databind.ser.PropertyFilter;
-import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
-import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 
 /**
  * 
@@ -75,8 +111,11 @@ import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
  * 
  * By default a filter is defined by its {@link Class#getName()}.
  * 
- * Note: If using {@link SimpleNameIntrospector}, filter caches are set by class
- * id. Caching is enabled by default, if not (a) by setting
+ * Note: Filters are compiled once for each filter specification (filter class, class of the source object, 
+ * include or exclude mode, attributes and excluded types) and reused, see {@link FilterKey}. 
+ * The filter cache is bounded, cft. configuration element <code>filterCache</code> with attributes
+ * <code>maxEntries</code> and <code>timeToLive</code> (seconds), the least frequently used filters are evicted.
+ * Caching is enabled by default, if not (a) by setting
  * {@link #cacheFilters} to <code>false</code>. By setting (b) the Boolean
  * parameter clean
  * {@link #serializeAllExceptFilter(Object, Class, Boolean, String...)} or
@@ -84,18 +123,84 @@ import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
  * clean the filter. If caching is disabled each filter will be unregistered and
  * the cache cleaned.
  * 
+ * Filters are applied per call with an {@link com.fasterxml.jackson.databind.ObjectWriter} and a 
+ * {@link ClassFilterProvider}, neither the mapper nor the {@link SimpleNameIntrospector} are changed, 
+ * filtered serialization is not synchronized. The writers are built by a filter mapper of the 
+ * {@link ReaderWriterCache} with its own serializers, serialization without a filter is not affected. Changing the mapper configuration by the service, e.g. 
+ * adding a mixin or module, flushes the cached serializers, cleaning the cache flushes them only, if the mapper was requested 
+ * by {@link #getMapper()} before.
+ * 
  * @author <a href="mailto:gk@apache.org">Georg Kallidis</a>
  * @version $Id$
  * 
  */
-public class Jackson2MapperService extends AbstractLogEnabled implements JsonService, Initializable, Configurable {
+public class Jackson2MapperService extends AbstractLogEnabled
+        implements JsonService, Initializable, Configurable, Disposable {
 
     private static final String DEFAULT_TYPING = "defaultTyping";
     private static final String CACHE_FILTERS = "cacheFilters";
+    private static final String FILTER_CACHE = "filterCache";
     private static final String DATE_FORMAT = "dateFormat";
     private static final String ESCAPE_CHARS = "escapeCharsGlobal";
     private static final String ESCAPE_CHAR_CLASS = "escapeCharsClass";
     private static final String USE_JSON_PATH = "useJsonPath";
+    private static final String PROPERTY_ACCESS = "propertyAccess";
+    private static final String JSON_FACTORY = "jsonFactory";
+    /**
+     * The binary JSON format Smile, requires jackson-dataformat-smile.
+     */
+    public static final String SMILE = "smile";
+    /**
+     * The binary format CBOR, requires jackson-dataformat-cbor.
+     */
+    public static final String CBOR = "cbor";
+    private static final String SMILE_FACTORY = "com.fasterxml.jackson.dataformat.smile.SmileFactory";
+    private static final String CBOR_FACTORY = "com.fasterxml.jackson.dataformat.cbor.CBORFactory";
+    private static final String BUFFER_RECYCLER = "bufferRecycler";
+    /**
+     * Dates formatted by a {@link SimpleDateFormat} of the mapper, which Jackson
+     * clones for each call, the default.
+     */
+    public static final String SIMPLE_DATE_FORMAT = "simple";
+    /**
+     * Dates and java.time types formatted by an immutable {@link DateTimeFormatter}
+     * of the {@link DateTimeModule}.
+     */
+    public static final String JAVA_TIME = "javaTime";
+    /**
+     * Buffers recycled per thread by Jackson, the default.
+     */
+    public static final String THREAD_LOCAL = "threadLocal";
+    /**
+     * Buffers recycled by lock-free deques shared by all threads, keeping a
+     * limited number of buffers of each kind.
+     */
+    public static final String SHARED = "shared";
+    /**
+     * Buffers recycled by lock-free slots shared by all threads, keeping a
+     * limited number of buffers of each kind, suited for small sizes.
+     */
+    public static final String BOUNDED = "bounded";
+    /**
+     * Default number of buffers of each kind of a {@link #SHARED} or
+     * {@link #BOUNDED} pool.
+     */
+    public static final int DEFAULT_RECYCLER_SIZE = 64;
+    /**
+     * Property access by reflection, the default.
+     */
+    public static final String REFLECTION = "reflection";
+    /**
+     * Property access by generated byte code of the Afterburner module.
+     */
+    public static final String AFTERBURNER = "afterburner";
+    /**
+     * Property access by lambda meta factory of the Blackbird module (Java 11+).
+     */
+    public static final String BLACKBIRD = "blackbird";
+    private static final String AFTERBURNER_MODULE = "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
+    private static final String BLACKBIRD_MODULE = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+    private static final String LINE_SEPARATOR = "\n";
     ObjectMapper mapper;
     AnnotationIntrospector primary; // support default
     AnnotationIntrospector secondary;
@@ -107,6 +212,8 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
     private Map<String, String> featureTypes = null;
 
     private String dateFormat;
+    private String dateFormatType = SIMPLE_DATE_FORMAT;
+    private ZoneId dateZone = null; // system default
 
     /**
      * Default dateformat is <code>MM/dd/yyyy</code>, could be overwritten in
@@ -115,14 +222,23 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
     public static final String DEFAULTDATEFORMAT = "MM/dd/yyyy";
 
     
+    private int filterCacheMaxEntries = BoundedCache.DEFAULT_MAX_ENTRIES;
+    private long filterCacheTimeToLive = 0; // seconds, no expiration
     private boolean cacheFilters = true; // true -> this is by default true in jackson, if not using
                                             // multiple serialization in one thread
     String[] defaultTypeDefs = null;
     private CacheService cacheService;
+    private ReaderWriterCache readerWriterCache;
     private boolean escapeCharsGlobal = false; // to be backward compatible, but should be true, then escaping to avoid
                                                 // XSS payload by default
     private boolean useJsonPath = false;
+    private String propertyAccess = REFLECTION;
+    private String jsonFactory = null;
+    private String bufferRecycler = THREAD_LOCAL;
+    private int bufferRecyclerSize = DEFAULT_RECYCLER_SIZE;
     private String escapeCharsClass = null;
+    private Configuration executorConf = null;
+    private AsyncJsonService asyncService;
 
     @Override
     public String ser(Object src) throws Exception {
@@ -141,12 +257,17 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
     /**
      * 
      * @param src the object to be serailized as JSON
-     * @param filter may be null, then sserialize without otherwise set into cache service and as filter provider.
+     * @param filter may be null, then sserialize without otherwise set into cache service and used as filter provider 
+     * of this call for the class of the source object. Filters other than {@link ClassFilterProvider} should resolve the class name as filter id.
      * @param cleanCache cleans the jackson cache
      * @return the serialzed JSON string
      * @throws Exception exception
      */
     public String ser(Object src, FilterProvider filter, Boolean cleanCache) throws Exception {
+        return write(AS_STRING, src, filter, cleanCache);
+    }
+
+    private String write(JsonOutput output, Object src, FilterProvider filter, Boolean cleanCache) throws Exception {
         String serResult = null;
         if (src == null) {
             getLogger().info("no serializable object.");
@@ -154,17 +275,18 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
         }
         if (filter == null) {
             getLogger().debug("ser class::" + src.getClass() + " without filter.");
-            return ser(src);
+            return write(output, src, false);
         } else {
             getLogger().debug("add filter for cache filter Class " + src.getClass().getName());
-            setCustomIntrospectorWithExternalFilterId(src.getClass(), null); // filter class
+            if (!(filter instanceof ClassFilterProvider)) {
+                filter = ClassFilterProvider.forProvider(filter, src.getClass());
+            }
             if (isCacheFilters()) {
                 cacheService.getFilters().put(src.getClass().getName(), filter);
             }
         }
         getLogger().debug("ser class::" + src.getClass() + " with filter " + filter);
-        mapper.setFilterProvider(filter);
-        String res = mapper.writer(filter).writeValueAsString(src);
+        String res = output.write(readerWriterCache.filterMapper(mapper).writer(filter), src);
         if (cleanCache) {
             cacheService.cleanSerializerCache(mapper);
         }
@@ -173,15 +295,33 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
 
     @Override
     public <T> T deSer(String json, Class<T> type) throws Exception {
-        ObjectReader reader = null;
-        if (type != null)
-            reader = mapper.readerFor(type);
-        else
-            reader = mapper.reader();
-
+        ObjectReader reader = readerWriterCache.readerFor(mapper, type);
         return reader.readValue(json);
     }
 
+    /**
+     * Parses the bytes by the UTF-8 parser of Jackson, the stream is not closed.
+     */
+    @Override
+    public <T> T deSer(InputStream src, Class<T> type) throws Exception {
+        return read(readerWriterCache.readerFor(mapper, type), src);
+    }
+
+    @Override
+    public <T> T deSer(Reader src, Class<T> type) throws Exception {
+        return read(readerWriterCache.readerFor(mapper, type), src);
+    }
+
+    @Override
+    public <T> T deSer(byte[] src, int offset, int len, Class<T> type) throws Exception {
+        return readerWriterCache.readerFor(mapper, type).readValue(src, offset, len);
+    }
+
+    @Override
+    public <T> T deSer(ByteBuffer src, Class<T> type) throws Exception {
+        return read(readerWriterCache.readerFor(mapper, type), src);
+    }
+
     /**
      * basically wrapper for {@link ObjectMapper#convertValue(Object, Class)}.
      * 
@@ -214,10 +354,12 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
                     cmw.getDeSer());
             getLogger().debug("registering custom module " + cm + "  for: " + target);
             mapper.registerModule(cm);
+            configurationChanged();
         } else if (module instanceof Module) {
             getLogger().debug(
                     "registering module " + module );
             mapper.registerModule((Module) module);
+            configurationChanged();
         } else {
             throw new ClassCastException("expecting module type " + Module.class);
         }
@@ -231,22 +373,59 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
     }
     
     public <T> List<T> deSerList(String json, Class<? extends List> targetList, Class<T> elementType) throws Exception {
-        return mapper.readValue(json, mapper.getTypeFactory().constructParametricType(targetList, elementType));
+        return readerWriterCache
+                .readerFor(mapper, readerWriterCache.constructParametricType(mapper, targetList, elementType))
+                .readValue(json);
+    }
+
+    /**
+     * @see #deSerList(String, Class, Class)
+     * 
+     * @param src         the JSON in UTF-8, the stream is not closed
+     * @param targetList  the list class
+     * @param elementType the element type
+     * @return the list
+     * @throws Exception if reading or deserialization fails
+     */
+    public <T> List<T> deSerList(InputStream src, Class<? extends List> targetList, Class<T> elementType)
+            throws Exception {
+        return read(readerWriterCache.readerFor(mapper,
+                readerWriterCache.constructParametricType(mapper, targetList, elementType)), src);
     }
 
     public <T, U> Map<T, U> deSerMap(String json, Class<? extends Map> mapClass, Class<T> keyClass, Class<U> valueClass)
             throws Exception {
-        return mapper.readValue(json, mapper.getTypeFactory().constructMapType(mapClass, keyClass, valueClass));
+        return readerWriterCache
+                .readerFor(mapper, readerWriterCache.constructMapType(mapper, mapClass, keyClass, valueClass))
+                .readValue(json);
+    }
+
+    /**
+     * @see #deSerMap(String, Class, Class, Class)
+     * 
+     * @param src        the JSON in UTF-8, the stream is not closed
+     * @param mapClass   the map class
+     * @param keyClass   the key type
+     * @param valueClass the value type
+     * @return the map
+     * @throws Exception if reading or deserialization fails
+     */
+    public <T, U> Map<T, U> deSerMap(InputStream src, Class<? extends Map> mapClass, Class<T> keyClass,
+            Class<U> valueClass) throws Exception {
+        return read(readerWriterCache.readerFor(mapper,
+                readerWriterCache.constructMapType(mapper, mapClass, keyClass, valueClass)), src);
     }
 
     public <T> Collection<T> deSerCollectionWithTypeReference(String json, TypeReference<T> collectionType)
             throws Exception {
-        return (Collection<T>) mapper.readValue(json, collectionType);
+        return (Collection<T>) readerWriterCache.readerFor(mapper, collectionType).readValue(json);
     }
   
     public <T> Collection<T> deSerCollectionWithType(String json, Class<? extends Collection> collectionClass,
             Class<T> type) throws Exception {
-        return mapper.readValue(json, mapper.getTypeFactory().constructCollectionType(collectionClass, type));
+        return readerWriterCache
+                .readerFor(mapper, readerWriterCache.constructCollectionType(mapper, collectionClass, type))
+                .readValue(json);
     }
     
     @Override
@@ -255,10 +434,282 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
         if (collectionType instanceof TypeReference) {
             return deSerCollectionWithTypeReference(json, (TypeReference<T>) collectionType);
         } else {
-            return mapper.readValue(json, mapper.getTypeFactory()
-                    .constructCollectionType(((Collection<T>) collectionType).getClass(), elementType));
+            return deSerCollectionWithType(json, ((Collection<T>) collectionType).getClass(), elementType);
+        }
+    }
+
+    @Override
+    public <T> Collection<T> deSerCollection(InputStream src, Object collectionType, Class<T> elementType)
+            throws Exception {
+        return read(collectionReader(collectionType, elementType), src);
+    }
+
+    @Override
+    public <T> Collection<T> deSerCollection(Reader src, Object collectionType, Class<T> elementType)
+            throws Exception {
+        return read(collectionReader(collectionType, elementType), src);
+    }
+
+    @Override
+    public <T> Collection<T> deSerCollection(byte[] src, int offset, int len, Object collectionType,
+            Class<T> elementType) throws Exception {
+        return collectionReader(collectionType, elementType).readValue(src, offset, len);
+    }
+
+    @Override
+    public <T> Collection<T> deSerCollection(ByteBuffer src, Object collectionType, Class<T> elementType)
+            throws Exception {
+        return read(collectionReader(collectionType, elementType), src);
+    }
+
+    /**
+     * Reads the file by memory mapped regions without copying its content to
+     * the heap, cft. {@link #deSer(InputStream, Class)}.
+     * 
+     * @param src  the path of the JSON file in UTF-8
+     * @param type the Java Type to be used as a class
+     * @return the Java Object
+     * @throws Exception if reading or deserialization fails
+     */
+    public <T> T deSer(Path src, Class<T> type) throws Exception {
+        try (InputStream in = new MappedFileInputStream(src)) {
+            return read(readerWriterCache.readerFor(mapper, type), in);
+        }
+    }
+
+    /**
+     * Reads the file by memory mapped regions, cft. {@link #deSer(Path, Class)}.
+     * 
+     * @param src            the path of the JSON file in UTF-8
+     * @param collectionType a {@link TypeReference} or a collection
+     * @param elementType    the element type
+     * @return the collection
+     * @throws Exception if reading or deserialization fails
+     */
+    public <T> Collection<T> deSerCollection(Path src, Object collectionType, Class<T> elementType)
+            throws Exception {
+        try (InputStream in = new MappedFileInputStream(src)) {
+            return read(collectionReader(collectionType, elementType), in);
+        }
+    }
+
+    /**
+     * Reads the elements of the JSON array in the file one at a time by memory
+     * mapped regions, the file is closed with the iterator.
+     * 
+     * @see #deSerIterator(InputStream, Class)
+     * 
+     * @param src         the path of the JSON file in UTF-8
+     * @param elementType the element type
+     * @return the iterator over the elements, which should be closed
+     * @throws Exception if reading or deserialization of the start fails
+     */
+    public <T> CloseableIterator<T> deSerIterator(Path src, Class<T> elementType) throws Exception {
+        return deSerIterator(new MappedFileInputStream(src), elementType);
+    }
+
+    /**
+     * Parses one element at a time by a {@link MappingIterator}, the stream is
+     * closed with the iterator or after reading the last element.
+     */
+    @Override
+    public <T> CloseableIterator<T> deSerIterator(InputStream src, Class<T> elementType) throws Exception {
+        MappingIterator<T> elements = readerWriterCache.readerFor(mapper, elementType).readValues(src);
+        return CloseableIterator.of(elements, elements);
+    }
+
+    @Override
+    public <T> CloseableIterator<T> deSerIterator(Reader src, Class<T> elementType) throws Exception {
+        MappingIterator<T> elements = readerWriterCache.readerFor(mapper, elementType).readValues(src);
+        return CloseableIterator.of(elements, elements);
+    }
+
+    /**
+     * @see #deSerIterator(InputStream, Class)
+     * 
+     * @param src         the JSON array in UTF-8, closed with the iterator
+     * @param elementType the type reference of the elements
+     * @return the iterator over the elements, which should be closed
+     * @throws Exception if reading or deserialization of the start fails
+     */
+    public <T> CloseableIterator<T> deSerIterator(InputStream src, TypeReference<T> elementType) throws Exception {
+        MappingIterator<T> elements = readerWriterCache.readerFor(mapper, elementType).readValues(src);
+        return CloseableIterator.of(elements, elements);
+    }
+
+    /**
+     * Creates a push style decoder, which is fed with chunks of the input, e.g.
+     * as they arrive from the network, and passes each root level value to the
+     * consumer, as soon as it is complete.
+     * 
+     * @param type     the type of the values
+     * @param consumer called with each decoded value
+     * @return the decoder, which should be closed
+     * @throws IOException if the parser cannot be created
+     */
+    public <T> JsonFeedDecoder<T> deSerFeed(Class<T> type, Consumer<? super T> consumer) throws IOException {
+        return new JsonFeedDecoder<>(readerWriterCache.readerFor(mapper, type), consumer, false);
+    }
+
+    /**
+     * Like {@link #deSerFeed(Class, Consumer)}, but passes the elements of root
+     * level JSON arrays one by one.
+     * 
+     * @param elementType the type of the array elements
+     * @param consumer    called with each decoded element
+     * @return the decoder, which should be closed
+     * @throws IOException if the parser cannot be created
+     */
+    public <T> JsonFeedDecoder<T> deSerFeedElements(Class<T> elementType, Consumer<? super T> consumer)
+            throws IOException {
+        return new JsonFeedDecoder<>(readerWriterCache.readerFor(mapper, elementType), consumer, true);
+    }
+
+    /**
+     * @param collectionType a {@link TypeReference} or a collection
+     * @param elementType    the element type, if not a type reference
+     * @return the cached reader
+     */
+    private ObjectReader collectionReader(Object collectionType, Class<?> elementType) {
+        if (collectionType instanceof TypeReference) {
+            return readerWriterCache.readerFor(mapper, (TypeReference<?>) collectionType);
+        } else {
+            return readerWriterCache.readerFor(mapper, readerWriterCache.constructCollectionType(mapper,
+                    ((Collection<?>) collectionType).getClass(), elementType));
+        }
+    }
+
+    private <T> T read(ObjectReader reader, InputStream src) throws IOException {
+        try (JsonParser parser = reader.createParser(src)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            return reader.readValue(parser);
+        }
+    }
+
+    private <T> T read(ObjectReader reader, Reader src) throws IOException {
+        try (JsonParser parser = reader.createParser(src)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            return reader.readValue(parser);
+        }
+    }
+
+    /**
+     * Heap buffers are parsed without copying, the position of the buffer is not changed.
+     */
+    private <T> T read(ObjectReader reader, ByteBuffer src) throws IOException {
+        if (src.hasArray()) {
+            return reader.readValue(src.array(), src.arrayOffset() + src.position(), src.remaining());
+        }
+        return read(reader, new ByteBufferBackedInputStream(src.duplicate()));
+    }
+
+    /**
+     * Binds the elements of a large top level JSON array in parallel, cft.
+     * {@link #deSerArrayStream(Path, Class)}. A {@link ForkJoinPool} configured
+     * as executor is used for binding, otherwise the common pool.
+     * 
+     * @param src         the path of the JSON file in UTF-8
+     * @param elementType the element type
+     * @return the elements in array order
+     * @throws Exception if reading or deserialization fails
+     */
+    public <T> List<T> deSerArrayParallel(Path src, Class<T> elementType) throws Exception {
+        return collect(deSerArrayStream(src, elementType));
+    }
+
+    /**
+     * @see #deSerArrayParallel(Path, Class)
+     * 
+     * @param src         the buffer containing the JSON array in UTF-8 from its
+     *                    position to its limit, which are not changed
+     * @param elementType the element type
+     * @return the elements in array order
+     * @throws Exception if deserialization fails
+     */
+    public <T> List<T> deSerArrayParallel(ByteBuffer src, Class<T> elementType) throws Exception {
+        return collect(deSerArrayStream(src, elementType));
+    }
+
+    /**
+     * Maps the file into memory, cft. {@link #deSerArrayStream(ByteBuffer, Class)}.
+     * Files larger than 2 GB cannot be mapped into a single buffer, their elements
+     * are read sequentially.
+     * 
+     * @param src         the path of the JSON file in UTF-8
+     * @param elementType the element type
+     * @return the ordered parallel stream of the elements, which should be closed
+     * @throws IOException if reading or scanning the array fails
+     */
+    public <T> Stream<T> deSerArrayStream(Path src, Class<T> elementType) throws IOException {
+        ByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(src, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                getLogger().warn("reading array elements sequentially, file size exceeds 2 GB: " + src);
+                MappingIterator<T> elements = readerWriterCache.readerFor(mapper, elementType)
+                        .readValues(new MappedFileInputStream(src));
+                return CloseableIterator.of(elements, elements).stream();
+            }
+            // the mapping stays valid after closing the channel
+            mapped = channel.map(MapMode.READ_ONLY, 0, channel.size());
+        }
+        return deSerArrayStream(mapped, elementType);
+    }
+
+    /**
+     * Scans the array for the boundaries of its elements first, then the
+     * elements are bound independently by a parallel stream. Malformed elements
+     * fail with an {@link UncheckedIOException}, when the stream is consumed.
+     * 
+     * @param src         the buffer containing the JSON array in UTF-8 from its
+     *                    position to its limit, which are not changed
+     * @param elementType the element type
+     * @return the ordered parallel stream of the elements
+     * @throws IOException if the buffer does not contain an array
+     */
+    public <T> Stream<T> deSerArrayStream(ByteBuffer src, Class<T> elementType) throws IOException {
+        JsonArrayIndex index = JsonArrayIndex.scan(src);
+        getLogger().debug("found " + index.size() + " array elements");
+        ObjectReader reader = readerWriterCache.readerFor(mapper, elementType);
+        return IntStream.range(0, index.size()).parallel().mapToObj(i -> {
+            ByteBuffer element = src.duplicate();
+            element.limit(index.end(i));
+            element.position(index.start(i));
+            try {
+                return read(reader, element);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * @param elements the parallel stream, which is closed
+     * @return the elements collected on the configured fork join pool
+     * @throws Exception if binding an element fails
+     */
+    private <T> List<T> collect(Stream<T> elements) throws Exception {
+        try (Stream<T> stream = elements) {
+            Executor executor = asyncService.getExecutor();
+            if (executor instanceof ForkJoinPool) {
+                return ((ForkJoinPool) executor).submit(() -> stream.collect(Collectors.toList())).get();
+            }
+            return stream.collect(Collectors.toList());
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
     }
+
+    private static Exception unwrap(Throwable e) {
+        if (e instanceof UncheckedIOException) {
+            return ((UncheckedIOException) e).getCause();
+        }
+        if (e instanceof Exception) {
+            return (Exception) e;
+        }
+        throw (Error) e;
+    }
     
     /**
      * 
@@ -270,12 +721,279 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
      */
     public <T> String serCollectionWithTypeReference(Collection<T> src, TypeReference collectionType,
                                                      Boolean cleanCache) throws JsonProcessingException {
-         String res = mapper.writerFor(collectionType).writeValueAsString(src);
+         String res = readerWriterCache.writerFor(mapper, collectionType).writeValueAsString(src);
          if (cleanCache) {
              cacheService.cleanSerializerCache(mapper);
          }
          return res;
      }
+
+    /**
+     * Writes the elements as JSON array while iterating, the elements are not collected. 
+     * Each element is serialized by its runtime type.
+     * 
+     * @param out      the output stream (UTF-8), which is flushed, but not closed
+     * @param elements the elements, e.g. of a database cursor
+     * @throws Exception if serialization or writing fails
+     */
+    public void serArray(OutputStream out, Iterator<?> elements) throws Exception {
+        try (JsonGenerator generator = generator(out)) {
+            writeArray(generator, elements);
+        }
+    }
+
+    /**
+     * @see #serArray(OutputStream, Iterator)
+     * 
+     * @param writer   the writer, which is flushed, but not closed
+     * @param elements the elements
+     * @throws Exception if serialization or writing fails
+     */
+    public void serArray(Writer writer, Iterator<?> elements) throws Exception {
+        try (JsonGenerator generator = generator(writer)) {
+            writeArray(generator, elements);
+        }
+    }
+
+    /**
+     * @see #serArray(OutputStream, Iterator)
+     * 
+     * @param out      the output stream (UTF-8), which is flushed, but not closed
+     * @param elements the elements, the stream is consumed, but not closed
+     * @throws Exception if serialization or writing fails
+     */
+    public void serArray(OutputStream out, Stream<?> elements) throws Exception {
+        serArray(out, elements.iterator());
+    }
+
+    /**
+     * @see #serArray(OutputStream, Iterator)
+     * 
+     * @param writer   the writer, which is flushed, but not closed
+     * @param elements the elements, the stream is consumed, but not closed
+     * @throws Exception if serialization or writing fails
+     */
+    public void serArray(Writer writer, Stream<?> elements) throws Exception {
+        serArray(writer, elements.iterator());
+    }
+
+    /**
+     * @see #serArray(OutputStream, Iterator)
+     * 
+     * @param out      the output stream (UTF-8), which is flushed, but not closed
+     * @param elements the elements
+     * @throws Exception if serialization or writing fails
+     */
+    public void serArray(OutputStream out, Spliterator<?> elements) throws Exception {
+        serArray(out, Spliterators.iterator(elements));
+    }
+
+    /**
+     * @see #serArray(OutputStream, Iterator)
+     * 
+     * @param writer   the writer, which is flushed, but not closed
+     * @param elements the elements
+     * @throws Exception if serialization or writing fails
+     */
+    public void serArray(Writer writer, Spliterator<?> elements) throws Exception {
+        serArray(writer, Spliterators.iterator(elements));
+    }
+
+    /**
+     * Writes JSON Lines by a single generator, the elements are separated by the root value separator.
+     */
+    @Override
+    public void serLines(OutputStream out, Iterator<?> elements) throws Exception {
+        try (JsonGenerator generator = generator(out)) {
+            writeLines(generator, elements);
+        }
+    }
+
+    @Override
+    public void serLines(Writer writer, Iterator<?> elements) throws Exception {
+        try (JsonGenerator generator = generator(writer)) {
+            writeLines(generator, elements);
+        }
+    }
+
+    /**
+     * Reads the lines by a single parser, the stream is closed with the iterator or after reading the last element.
+     */
+    @Override
+    public <T> CloseableIterator<T> deSerLines(InputStream src, Class<T> type) throws Exception {
+        ObjectReader reader = readerWriterCache.readerFor(mapper, type);
+        // a parser not yet positioned, arrays in lines are not unwrapped
+        MappingIterator<T> elements = reader.readValues(reader.createParser(src));
+        return CloseableIterator.of(elements, elements);
+    }
+
+    @Override
+    public <T> CloseableIterator<T> deSerLines(Reader src, Class<T> type) throws Exception {
+        ObjectReader reader = readerWriterCache.readerFor(mapper, type);
+        MappingIterator<T> elements = reader.readValues(reader.createParser(src));
+        return CloseableIterator.of(elements, elements);
+    }
+
+    /**
+     * Serializes each object of the batch to its own JSON string, cft.
+     * {@link #serBatch(List, Class, boolean, String...)}.
+     * 
+     * @param srcs the objects to be serialized
+     * @return the JSON strings in the order of the objects
+     * @throws Exception if serialization fails
+     */
+    public List<String> serBatch(List<?> srcs) throws Exception {
+        return serBatch(srcs, null, false);
+    }
+
+    /**
+     * Serializes each object of the batch to its own JSON string. The writer is
+     * resolved and the filter compiled once per class of the objects, all objects
+     * are written by one generator into one reused buffer.
+     * 
+     * @param srcs        the objects to be serialized
+     * @param filterClass the class to be filtered, if null registered filters of
+     *                    the object classes are applied, cft.
+     *                    {@link #ser(Object)}
+     * @param include     if <code>true</code> only the attributes are serialized
+     *                    (cft. {@link #serializeOnlyFilter(Object, Class, Boolean, String...)}),
+     *                    otherwise they are excluded (cft.
+     *                    {@link #serializeAllExceptFilter(Object, Class, Boolean, String...)})
+     * @param filterAttr  the filtered attributes
+     * @return the JSON strings in the order of the objects
+     * @throws Exception if serialization fails
+     */
+    public List<String> serBatch(List<?> srcs, Class<?> filterClass, boolean include, String... filterAttr)
+            throws Exception {
+        List<String> batch = new ArrayList<>(srcs.size());
+        StringWriter buffer = new StringWriter();
+        try (JsonGenerator generator = generator(buffer)) {
+            writeBatch(generator, srcs, filterClass, include, filterAttr, () -> {
+                batch.add(buffer.toString());
+                buffer.getBuffer().setLength(0);
+            });
+        }
+        return batch;
+    }
+
+    /**
+     * Like {@link #serBatch(List, Class, boolean, String...)}, but encodes each
+     * object in UTF-8.
+     * 
+     * @param srcs        the objects to be serialized
+     * @param filterClass the class to be filtered, may be null
+     * @param include     if <code>true</code> only the attributes are serialized,
+     *                    otherwise they are excluded
+     * @param filterAttr  the filtered attributes
+     * @return the JSON byte arrays in the order of the objects
+     * @throws Exception if serialization fails
+     */
+    public List<byte[]> serBatchAsBytes(List<?> srcs, Class<?> filterClass, boolean include, String... filterAttr)
+            throws Exception {
+        List<byte[]> batch = new ArrayList<>(srcs.size());
+        ByteArrayBuilder buffer = byteArrayBuilder();
+        try (JsonGenerator generator = generator(buffer)) {
+            writeBatch(generator, srcs, filterClass, include, filterAttr, () -> {
+                batch.add(buffer.toByteArray());
+                buffer.reset();
+            });
+        } finally {
+            buffer.release();
+        }
+        return batch;
+    }
+
+    /**
+     * Like {@link #serBatch(List, Class, boolean, String...)}, but writes the
+     * objects as JSON Lines in UTF-8 to a single stream.
+     * 
+     * @param out         the output stream, which is flushed, but not closed
+     * @param srcs        the objects to be serialized
+     * @param filterClass the class to be filtered, may be null
+     * @param include     if <code>true</code> only the attributes are serialized,
+     *                    otherwise they are excluded
+     * @param filterAttr  the filtered attributes
+     * @throws Exception if serialization or writing fails
+     */
+    public void serBatch(OutputStream out, List<?> srcs, Class<?> filterClass, boolean include,
+            String... filterAttr) throws Exception {
+        try (JsonGenerator generator = generator(out)) {
+            writeBatch(generator, srcs, filterClass, include, filterAttr, () -> generator.writeRaw(LINE_SEPARATOR));
+        }
+    }
+
+    /**
+     * A step of a batch, e.g. collecting the JSON of the last object.
+     */
+    @FunctionalInterface
+    private interface BatchStep {
+        void written() throws IOException;
+    }
+
+    private void writeBatch(JsonGenerator generator, List<?> srcs, Class<?> filterClass, boolean include,
+            String[] filterAttr, BatchStep step) throws IOException {
+        // no separator, each value is taken separately
+        generator.setRootValueSeparator(null);
+        Map<Class<?>, ObjectWriter> writers = new HashMap<>();
+        for (Object src : srcs) {
+            Class<?> srcClass = (src != null) ? src.getClass() : Object.class;
+            ObjectWriter writer = writers.computeIfAbsent(srcClass,
+                    c -> batchWriter(c, filterClass, include, filterAttr));
+            writer.writeValue(generator, src);
+            generator.flush();
+            step.written();
+        }
+        getLogger().debug("serialized batch of " + srcs.size() + " objects with " + writers.size() + " writers");
+    }
+
+    /**
+     * @param srcClass    the class of the serialized objects
+     * @param filterClass the class to be filtered, may be null
+     * @param include     if the attributes are included or excluded
+     * @param filterAttr  the filtered attributes
+     * @return the writer applying the filter
+     */
+    private ObjectWriter batchWriter(Class<?> srcClass, Class<?> filterClass, boolean include, String[] filterAttr) {
+        if (filterClass == null) {
+            FilterProvider filter = isCacheFilters() ? cacheService.getFilters().get(srcClass.getName()) : null;
+            if (filter == null) {
+                return readerWriterCache.writerWithView(mapper, Object.class);
+            }
+            return readerWriterCache.filterMapper(mapper).writer((filter instanceof ClassFilterProvider) ? filter
+                    : ClassFilterProvider.forProvider(filter, srcClass));
+        }
+        String[] attributes = (include && (filterAttr == null || filterAttr.length == 0)) ? new String[] { "dummy" }
+                : filterAttr;
+        FilterKey key = new FilterKey(filterClass, srcClass, include, attributes,
+                include ? null : new Class<?>[] { filterClass });
+        if (isCacheFilters()) {
+            return readerWriterCache.writerWithFilter(mapper, cacheService.getCompiledFilter(key));
+        }
+        return readerWriterCache.filterMapper(mapper).writer(ClassFilterProvider.forKey(key));
+    }
+
+    private void writeLines(JsonGenerator generator, Iterator<?> elements) throws IOException {
+        boolean written = false;
+        try (SequenceWriter sequence = readerWriterCache.writerWithView(mapper, Object.class)
+                .withRootValueSeparator(LINE_SEPARATOR).writeValues(generator)) {
+            while (elements.hasNext()) {
+                sequence.write(elements.next());
+                written = true;
+            }
+            if (written) {
+                generator.writeRaw(LINE_SEPARATOR);
+            }
+        }
+    }
+
+    private void writeArray(JsonGenerator generator, Iterator<?> elements) throws IOException {
+        try (SequenceWriter sequence = readerWriterCache.writerWithView(mapper, Object.class)
+                .writeValuesAsArray(generator)) {
+            while (elements.hasNext()) {
+                sequence.write(elements.next());
+            }
+        }
+    }
     
      /**
      * @param name   name of the module
@@ -290,6 +1008,7 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
         getLogger().debug(
                 "registering unversioned simple mixin module named " + name + " of type " + mixin + "  for: " + target);
         mapper.addMixIn(target, mixin);
+        configurationChanged();
         return this;
     }
 
@@ -308,7 +1027,9 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
     public String withMixinModule(Object src, String name, Class target, Class mixin) throws JsonProcessingException {
         Module mx = new MixinModule(name, target, mixin);
         getLogger().debug("registering module " + mx + ", mixin: " + mixin);
-        return mapper.registerModule(mx).writer().writeValueAsString(src);
+        mapper.registerModule(mx);
+        configurationChanged();
+        return mapper.writer().writeValueAsString(src);
     }
 
     /**
@@ -339,7 +1060,9 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
             sourceMixins.put(target, mixin);
         }
         getLogger().debug("complete reset mixins for target " + target + ", mixin: " + mixin);
-        return mapper.setMixIns(sourceMixins);
+        mapper.setMixIns(sourceMixins);
+        configurationChanged();
+        return mapper;
     }
 
     @Override
@@ -348,18 +1071,18 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
     }
 
     @Override
-    public synchronized String serializeAllExceptFilter(Object src, Boolean cache, String... filterAttr)
+    public String serializeAllExceptFilter(Object src, Boolean cache, String... filterAttr)
             throws Exception {
         return serializeAllExceptFilter(src, src.getClass(), cache, filterAttr);
     }
 
-    public synchronized <T> String serializeAllExceptFilter(Object src, Class<T>[] filterClasses, String... filterAttr)
+    public <T> String serializeAllExceptFilter(Object src, Class<T>[] filterClasses, String... filterAttr)
             throws Exception {
         return serializeAllExceptFilter(src, filterClasses, true, filterAttr);
     }
 
     @Override
-    public synchronized <T> String serializeAllExceptFilter(Object src, Class<T> filterClass, String... filterAttr)
+    public <T> String serializeAllExceptFilter(Object src, Class<T> filterClass, String... filterAttr)
             throws Exception {
         return serializeAllExceptFilter(src, filterClass, true, filterAttr);
     }
@@ -381,18 +1104,29 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
      * @return the serailized string
      * @throws Exception generic exception
      */
-    public synchronized <T> String serializeAllExceptFilter(Object src, Class<T>[] filterClasses, Boolean clean,
+    public <T> String serializeAllExceptFilter(Object src, Class<T>[] filterClasses, Boolean clean,
+            String... filterAttr) throws Exception {
+        return writeAllExceptFilter(AS_STRING, src, filterClasses, clean, filterAttr);
+    }
+
+    @Override
+    public <T> void serializeAllExceptFilter(OutputStream out, Object src, Class<T> filterClass, Boolean cleanFilter,
+            String... filterAttr) throws Exception {
+        writeAllExceptFilter(to(out), src, new Class<?>[] { filterClass }, cleanFilter, filterAttr);
+    }
+
+    @Override
+    public <T> void serializeAllExceptFilter(Writer writer, Object src, Class<T> filterClass, Boolean cleanFilter,
             String... filterAttr) throws Exception {
-        PropertyFilter pf = null;
-        if (filterAttr != null)
-            pf = SimpleBeanPropertyFilter.serializeAllExcept(filterAttr);
-        else if (filterClasses == null) { // no filter
-            return ser(src, clean);
-            // should be better:
-            // return filter(src, new Class<?>[] { src.getClass() }, filterClasses, pf,
-            // clean);
+        writeAllExceptFilter(to(writer), src, new Class<?>[] { filterClass }, cleanFilter, filterAttr);
+    }
+
+    private String writeAllExceptFilter(JsonOutput output, Object src, Class<?>[] filterClasses, Boolean clean,
+            String... filterAttr) throws Exception {
+        if (filterAttr == null && filterClasses == null) { // no filter
+            return write(output, src, clean);
         }
-        return filter(src, new Class<?>[] { filterClasses[0] }, filterClasses, pf, clean);
+        return filter(output, src, new Class<?>[] { filterClasses[0] }, filterClasses, false, filterAttr, clean);
     }
 
     @Override
@@ -401,47 +1135,150 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
     }
 
     @Override
-    public synchronized String serializeOnlyFilter(Object src, Boolean cache, String... filterAttr) throws Exception {
+    public String serializeOnlyFilter(Object src, Boolean cache, String... filterAttr) throws Exception {
         return serializeOnlyFilter(src, src.getClass(), cache, filterAttr);
     }
 
     @Override
-    public synchronized <T> String serializeOnlyFilter(Object src, Class<T> filterClass, String... filterAttr)
+    public <T> String serializeOnlyFilter(Object src, Class<T> filterClass, String... filterAttr)
             throws Exception {
         return serializeOnlyFilter(src, filterClass, true, filterAttr);
     }
 
     @Override
-    public synchronized <T> String serializeOnlyFilter(Object src, Class<T> filterClass, Boolean refresh,
+    public <T> String serializeOnlyFilter(Object src, Class<T> filterClass, Boolean refresh,
             String... filterAttr) throws Exception {
         return serializeOnlyFilter(src, new Class[] { filterClass }, refresh, filterAttr);
     }
 
-    public synchronized <T> String serializeOnlyFilter(Object src, Class<T>[] filterClasses, Boolean refresh,
+    public <T> String serializeOnlyFilter(Object src, Class<T>[] filterClasses, Boolean refresh,
+            String... filterAttr) throws Exception {
+        return writeOnlyFilter(AS_STRING, src, filterClasses, refresh, filterAttr);
+    }
+
+    @Override
+    public <T> void serializeOnlyFilter(OutputStream out, Object src, Class<T> filterClass, Boolean cleanFilter,
+            String... filterAttr) throws Exception {
+        writeOnlyFilter(to(out), src, new Class<?>[] { filterClass }, cleanFilter, filterAttr);
+    }
+
+    @Override
+    public <T> void serializeOnlyFilter(Writer writer, Object src, Class<T> filterClass, Boolean cleanFilter,
+            String... filterAttr) throws Exception {
+        writeOnlyFilter(to(writer), src, new Class<?>[] { filterClass }, cleanFilter, filterAttr);
+    }
+
+    private String writeOnlyFilter(JsonOutput output, Object src, Class<?>[] filterClasses, Boolean refresh,
             String... filterAttr) throws Exception {
-        PropertyFilter pf = null;
+        String[] attributes = filterAttr;
         if (filterAttr != null && filterAttr.length > 0 && !"".equals(filterAttr[0])) {
-            pf = SimpleBeanPropertyFilter.filterOutAllExcept(filterAttr);
             getLogger().debug("setting filteroutAllexcept filter for size of filterAttr: " + filterAttr.length);
         } else {
             getLogger().warn("no filter attributes set!");
-            pf = SimpleBeanPropertyFilter.filterOutAllExcept("dummy");
+            attributes = new String[] { "dummy" };
         }
         if (filterClasses == null)
             throw new AssertionError("You have to provide some class to apply the filtering!");
-        return filter(src, filterClasses, null, pf, refresh);
+        return filter(output, src, filterClasses, null, true, attributes, refresh);
     }
 
     @Override
     public String ser(Object src, Boolean cleanCache) throws Exception {
+        return write(AS_STRING, src, cleanCache);
+    }
+
+    @Override
+    public void ser(OutputStream out, Object src) throws Exception {
+        write(to(out), src, false);
+    }
+
+    @Override
+    public void ser(Writer writer, Object src) throws Exception {
+        write(to(writer), src, false);
+    }
+
+    /**
+     * Serializes in the format of the configured factory, e.g. Smile or CBOR.
+     * Binary formats cannot be serialized to strings, only by this and the
+     * stream methods.
+     * 
+     * @param src the java object to be serialized, not null.
+     * @return the serialized bytes, UTF-8 if JSON
+     * @throws Exception if serialization fails
+     */
+    public byte[] serAsBytes(Object src) throws Exception {
+        return toBytes(output -> write(output, src, false));
+    }
+
+    /**
+     * @see #serAsBytes(Object)
+     * @see #serializeOnlyFilter(Object, Class, Boolean, String...)
+     * 
+     * @param src         the java object to be serialized, not null.
+     * @param filterClass the class to be filtered
+     * @param cleanFilter if <code>true</code> the filter is not cached
+     * @param filterAttr  the properties to be serialized
+     * @return the serialized bytes, UTF-8 if JSON
+     * @throws Exception if serialization fails
+     */
+    public <T> byte[] serializeOnlyFilterAsBytes(Object src, Class<T> filterClass, Boolean cleanFilter,
+            String... filterAttr) throws Exception {
+        return toBytes(output -> writeOnlyFilter(output, src, new Class<?>[] { filterClass }, cleanFilter, filterAttr));
+    }
+
+    /**
+     * @see #serAsBytes(Object)
+     * @see #serializeAllExceptFilter(Object, Class, Boolean, String...)
+     * 
+     * @param src         the java object to be serialized, not null.
+     * @param filterClass the class to be filtered
+     * @param cleanFilter if <code>true</code> the filter is not cached
+     * @param filterAttr  the properties not to be serialized
+     * @return the serialized bytes, UTF-8 if JSON
+     * @throws Exception if serialization fails
+     */
+    public <T> byte[] serializeAllExceptFilterAsBytes(Object src, Class<T> filterClass, Boolean cleanFilter,
+            String... filterAttr) throws Exception {
+        return toBytes(
+                output -> writeAllExceptFilter(output, src, new Class<?>[] { filterClass }, cleanFilter, filterAttr));
+    }
+
+    /**
+     * @param step writes to the provided output
+     * @return the written bytes
+     * @throws Exception if serialization fails
+     */
+    private byte[] toBytes(OutputStep step) throws Exception {
+        ByteArrayBuilder out = byteArrayBuilder();
+        try {
+            step.write(to(out));
+            return out.toByteArray();
+        } finally {
+            out.release();
+        }
+    }
+
+    @FunctionalInterface
+    private interface OutputStep {
+        void write(JsonOutput output) throws Exception;
+    }
+
+    /**
+     * @return a builder, which takes its first block from the buffer recycler
+     *         of the factory and has to be released
+     */
+    private ByteArrayBuilder byteArrayBuilder() {
+        return new ByteArrayBuilder(mapper.getFactory()._getBufferRecycler());
+    }
+
+    private String write(JsonOutput output, Object src, Boolean cleanCache) throws Exception {
         if (isCacheFilters() && cacheService.getFilters().containsKey(src.getClass().getName())) {
             getLogger().warn("Found registered filter - using instead of default view filter for class:"
                     + src.getClass().getName());
-            SimpleFilterProvider filter = (SimpleFilterProvider) cacheService.getFilters()
-                    .get(src.getClass().getName());
-            return ser(src, filter, cleanCache);// mapper.writerWithView(src.getClass()).writeValueAsString(src);
+            FilterProvider filter = cacheService.getFilters().get(src.getClass().getName());
+            return write(output, src, filter, cleanCache);// mapper.writerWithView(src.getClass()).writeValueAsString(src);
         }
-        String res = mapper.writerWithView(Object.class).writeValueAsString(src);
+        String res = output.write(readerWriterCache.writerWithView(mapper, Object.class), src);
         if (cleanCache != null && cleanCache) {
             cacheService.cleanSerializerCache(mapper);
         }
@@ -450,6 +1287,20 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
 
     @Override
     public <T> String ser(Object src, Class<T> type, Boolean cleanCache) throws Exception {
+        return write(AS_STRING, src, type, cleanCache);
+    }
+
+    @Override
+    public <T> void ser(OutputStream out, Object src, Class<T> type) throws Exception {
+        write(to(out), src, type, false);
+    }
+
+    @Override
+    public <T> void ser(Writer writer, Object src, Class<T> type) throws Exception {
+        write(to(writer), src, type, false);
+    }
+
+    private <T> String write(JsonOutput output, Object src, Class<T> type, Boolean cleanCache) throws Exception {
         getLogger().info("serializing object:" + src + " for type " + type);
         if (isCacheFilters() && src != null && cacheService.getFilters().containsKey(src.getClass().getName())) {
             getLogger().warn("Found registered filter - could not use custom view and custom filter for class:"
@@ -458,13 +1309,12 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
             // Exception("Found registered filter - could not use custom view and custom
             // filter for class:"+
             // src.getClass().getName());
-            SimpleFilterProvider filter = (SimpleFilterProvider) cacheService.getFilters()
-                    .get(src.getClass().getName());
-            return ser(src, filter);
+            FilterProvider filter = cacheService.getFilters().get(src.getClass().getName());
+            return write(output, src, filter, false);
         }
 
-        String res = (type != null) ? mapper.writerWithView(type).writeValueAsString(src)
-                : mapper.writeValueAsString(src);
+        String res = output.write((type != null) ? readerWriterCache.writerWithView(mapper, type) : mapper.writer(),
+                src);
         if (cleanCache) {
             cacheService.cleanSerializerCache(mapper);
         }
@@ -473,89 +1323,131 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
 
     /**
      * 
+     * @param output         the target of the serialization
      * @param src            The source Object to be filtered.
      * @param filterClass    This Class array contains at least one element. If no
      *                       class is provided it is the class type of the source
-     *                       object. The filterClass is to become the key of the
-     *                       filter object cache.
+     *                       object.
      * @param excludeClasses The classes to be excluded, optionally used only for
      *                       methods like
      *                       {@link #serializeAllExceptFilter(Object, Class[], String...)}.
-     * @param pf             Expecting a property filter from e.g @link
-     *                       {@link SimpleBeanPropertyFilter}.
-     * @param clean          if <code>true</code> does not reuse the filter object
-     *                       (no cashing).
-     * @return The serialized Object as String
+     * @param include        <code>true</code> if only the attributes are
+     *                       serialized, <code>false</code> if they are excluded.
+     * @param filterAttr     the filtered attributes, may be null.
+     * @param clean          if <code>true</code> the filter is not registered for
+     *                       the class of the source object.
+     * @return The serialized Object as String, null if written to a stream
      * @throws Exception
      */
-    private <T> String filter(Object src, Class<?>[] filterClasses, Class<T>[] excludeClasses, PropertyFilter pf,
-            Boolean clean) throws Exception {
-        FilterProvider filter = null;
-        if (filterClasses.length > 0) {
-            filter = retrieveFilter(pf, filterClasses[0], excludeClasses);
+    private String filter(JsonOutput output, Object src, Class<?>[] filterClasses, Class<?>[] excludeClasses,
+            boolean include, String[] filterAttr, Boolean clean) throws Exception {
+        if (src == null) {
+            getLogger().info("no serializable object.");
+            return null;
         }
-        getLogger().info("filtering with filter " + filter);
-        String serialized = ser(src, filter, clean);
-        if (!isCacheFilters() || clean) {
-            if (filterClasses.length > 0) {
-                boolean exclude = (excludeClasses != null) ? true : false;
-                cacheService.removeFilter(filterClasses[0], exclude);
+        if (filterClasses.length == 0) {
+            return write(output, src, false);
+        }
+        FilterKey key = new FilterKey(filterClasses[0], src.getClass(), include, filterAttr, excludeClasses);
+        String serialized;
+        if (isCacheFilters()) {
+            FilterProvider filter = cacheService.getCompiledFilter(key);
+            getLogger().debug("filtering with compiled filter " + key);
+            if (!clean) {
+                cacheService.getFilters().put(filterClasses[0].getName(), filter);
+                cacheService.getFilters().put(src.getClass().getName(), filter);
             }
+            serialized = output.write(readerWriterCache.writerWithFilter(mapper, filter), src);
+        } else {
+            FilterProvider filter = ClassFilterProvider.forKey(key);
+            getLogger().debug("filtering with filter " + key);
+            serialized = output.write(readerWriterCache.filterMapper(mapper).writer(filter), src);
+        }
+        if (clean) {
+            cacheService.cleanSerializerCache(mapper);
+        }
+        if (!isCacheFilters() || clean) {
+            cacheService.removeFilter(filterClasses[0]);
         }
         return serialized;
     }
 
-    private <T> SimpleFilterProvider retrieveFilter(PropertyFilter pf, Class<?> filterClass,
-            Class<T>[] excludeClasses) {
-        SimpleFilterProvider filter = null;
-        if (pf != null) {
-            filter = new SimpleFilterProvider();
-            filter.setDefaultFilter(pf);
-        }
-        if (isCacheFilters()) {
-            if (!cacheService.getFilters().containsKey(filterClass.getName())) {
-                getLogger().debug("add filter for cache filter Class " + filterClass.getName());
-                setCustomIntrospectorWithExternalFilterId(filterClass, excludeClasses); // filter class
-                if (pf != null) {
-                    cacheService.getFilters().put(filterClass.getName(), filter);
-                }
-            } else {
-                filter = (SimpleFilterProvider) cacheService.getFilters().get(filterClass.getName());
-                // setCustomIntrospectorWithExternalFilterId(filterClass); // filter
-                // class
+    /**
+     * Target of a serialization, the JSON is either returned as string or
+     * written to a stream.
+     */
+    @FunctionalInterface
+    private interface JsonOutput {
+        /**
+         * @param writer the writer of the call
+         * @param src    the object to be serialized
+         * @return the JSON string or <code>null</code>, if written to a stream
+         * @throws IOException if writing fails
+         */
+        String write(ObjectWriter writer, Object src) throws IOException;
+    }
+
+    private static final JsonOutput AS_STRING = ObjectWriter::writeValueAsString;
+
+    /**
+     * @param out the output stream, which is not closed
+     * @return the target writing UTF-8 by a generator of the mapper
+     */
+    private JsonOutput to(OutputStream out) {
+        return (writer, src) -> {
+            try (JsonGenerator generator = generator(out)) {
+                writer.writeValue(generator, src);
             }
-        }
-        getLogger().debug("set filter:" + filter);
-        return filter;
-    }
-
-    /**
-     * @param filterClass
-     *                          <li>Adding filterClass into
-     *                          {@link SimpleNameIntrospector#setFilteredClass(Class)}
-     *                          enables the filtering process.
-     * @param externalFilterIds
-     *                          <li>Adding externalFilterIs to
-     *                          {@link SimpleNameIntrospector#setExternalFilterExcludeClasses(Class...)}
-     *                          excludes these classes.
-     */
-    private <T> void setCustomIntrospectorWithExternalFilterId(Class<?> filterClass,
-            Class<T>[] externalFilterClassIds) {
-        if (primary instanceof SimpleNameIntrospector) {
-            // first one is required that we get to the PropertyFilter
-            ((SimpleNameIntrospector) primary).setFilteredClasses(filterClass);
-            if (externalFilterClassIds != null) {
-                ((SimpleNameIntrospector) primary).setIsExludeType(true);
-                for (Class<T> filterClazz : externalFilterClassIds) {
-                    getLogger().debug("added class for filters " + filterClazz);
-                }
-                ((SimpleNameIntrospector) primary).setExternalFilterExcludeClasses(externalFilterClassIds);
+            return null;
+        };
+    }
+
+    /**
+     * @param target the writer, which is not closed
+     * @return the target writing by a generator of the mapper
+     */
+    private JsonOutput to(Writer target) {
+        return (writer, src) -> {
+            try (JsonGenerator generator = generator(target)) {
+                writer.writeValue(generator, src);
             }
-        }
+            return null;
+        };
+    }
+
+    /**
+     * @param out the output stream, which is not closed with the generator
+     * @return a UTF-8 generator of the mapper
+     * @throws IOException if the generator could not be created
+     */
+    private JsonGenerator generator(OutputStream out) throws IOException {
+        JsonGenerator generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    /**
+     * @param target the writer, which is not closed with the generator
+     * @return a generator of the mapper
+     * @throws IOException if the generator could not be created
+     */
+    private JsonGenerator generator(Writer target) throws IOException {
+        JsonGenerator generator = mapper.getFactory().createGenerator(target);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    /**
+     * Flushes cached serializers, readers and writers after changing the mapper configuration.
+     */
+    private void configurationChanged() {
+        cacheService.flushSerializerCache(mapper);
+        readerWriterCache.clear();
     }
 
     public Jackson2MapperService registerModule(Module module) {
         mapper.registerModule(module);
+        configurationChanged();
         return this;
     }
 
@@ -569,10 +1461,75 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
 
     /**
      * Default Dateformat: {@link #DEFAULTDATEFORMAT}
+     * 
+     * Changes the mapper for all calls, the date format of a single call is set by
+     * {@link #serWithDateFormat(Object, String, ZoneId)}. If dates are formatted by
+     * {@link #JAVA_TIME}, a {@link SimpleDateFormat} is replaced by a
+     * {@link DateTimeFormatter} with its pattern and time zone, other formats are
+     * applied by Jackson.
      */
     @Override
     public void setDateFormat(final DateFormat df) {
         mapper.setDateFormat(df);
+        if (JAVA_TIME.equals(dateFormatType)) {
+            DateTimeFormatter formatter = null;
+            if (df instanceof SimpleDateFormat) {
+                try {
+                    formatter = DateTimeModule.formatter(((SimpleDateFormat) df).toPattern(),
+                            df.getTimeZone().toZoneId());
+                } catch (IllegalArgumentException e) {
+                    getLogger().warn("Applying the date format by Jackson, the pattern is not supported by java.time: "
+                            + ((SimpleDateFormat) df).toPattern());
+                }
+            }
+            setDateTimeFormatter(formatter);
+        }
+    }
+
+    /**
+     * @param formatter the default formatter of the {@link DateTimeModule} or null
+     *                  to apply the date format of the mapper
+     */
+    private void setDateTimeFormatter(DateTimeFormatter formatter) {
+        mapper.setConfig(mapper.getSerializationConfig()
+                .with(mapper.getSerializationConfig().getAttributes()
+                        .withSharedAttribute(DateTimeModule.DATE_TIME_FORMATTER, formatter)));
+        mapper.setConfig(mapper.getDeserializationConfig()
+                .with(mapper.getDeserializationConfig().getAttributes()
+                        .withSharedAttribute(DateTimeModule.DATE_TIME_FORMATTER, formatter)));
+    }
+
+    /**
+     * Serializes with the date format of this call, the mapper is not changed. The
+     * writers are cached by pattern and zone.
+     * 
+     * @param src     the java object to be serialized
+     * @param pattern the date pattern, by {@link DateTimeFormatter} if dates are
+     *                formatted by {@link #JAVA_TIME}, otherwise by
+     *                {@link SimpleDateFormat}
+     * @param zone    the zone of the dates
+     * @return the JSON string
+     * @throws Exception if the serialization fails
+     */
+    public String serWithDateFormat(Object src, String pattern, ZoneId zone) throws Exception {
+        return readerWriterCache.writerWithDateFormat(mapper, pattern, zone).writeValueAsString(src);
+    }
+
+    /**
+     * Deserializes with the date format of this call, the mapper is not changed.
+     * 
+     * @see #serWithDateFormat(Object, String, ZoneId)
+     * 
+     * @param json    the JSON string
+     * @param type    the Java Type to be used as a class
+     * @param pattern the date pattern
+     * @param zone    the zone of the dates
+     * @param <T>     the class type
+     * @return the Java object
+     * @throws Exception if the deserialization fails
+     */
+    public <T> T deSerWithDateFormat(String json, Class<T> type, String pattern, ZoneId zone) throws Exception {
+        return readerWriterCache.readerWithDateFormat(mapper, type, pattern, zone).readValue(json);
     }
 
     /**
@@ -623,11 +1580,36 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
         }
         final Configuration configuredDateFormat = conf.getChild(DATE_FORMAT, true);
         this.dateFormat = configuredDateFormat.getValue(DEFAULTDATEFORMAT);
+        this.dateFormatType = configuredDateFormat.getAttribute("type", SIMPLE_DATE_FORMAT);
+        if (!SIMPLE_DATE_FORMAT.equals(dateFormatType) && !JAVA_TIME.equals(dateFormatType)) {
+            throw new ConfigurationException("Unknown date format type: " + dateFormatType, configuredDateFormat);
+        }
+        String zone = configuredDateFormat.getAttribute("zone", null);
+        if (zone != null) {
+            try {
+                this.dateZone = ZoneId.of(zone);
+            } catch (DateTimeException e) {
+                throw new ConfigurationException("Invalid zone: " + zone, configuredDateFormat, e);
+            }
+        }
+        if (JAVA_TIME.equals(dateFormatType)) {
+            try {
+                DateTimeFormatter.ofPattern(dateFormat);
+            } catch (IllegalArgumentException e) {
+                throw new ConfigurationException("Invalid date format: " + dateFormat, configuredDateFormat, e);
+            }
+        }
 
         final Configuration configuredKeepFilter = conf.getChild(CACHE_FILTERS, false);
         if (configuredKeepFilter != null) {
             setCacheFilters( configuredKeepFilter.getValueAsBoolean());
         }
+        final Configuration configuredFilterCache = conf.getChild(FILTER_CACHE, false);
+        if (configuredFilterCache != null) {
+            this.filterCacheMaxEntries = configuredFilterCache.getAttributeAsInteger("maxEntries",
+                    BoundedCache.DEFAULT_MAX_ENTRIES);
+            this.filterCacheTimeToLive = configuredFilterCache.getAttributeAsLong("timeToLive", 0);
+        }
         final Configuration configuredEscapeChars = conf.getChild(ESCAPE_CHARS, false);
         if (configuredEscapeChars != null) {
             this.escapeCharsGlobal = configuredEscapeChars.getValueAsBoolean();
@@ -646,16 +1628,46 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
         if (configuredjsonPath != null) {
             this.useJsonPath = configuredjsonPath.getValueAsBoolean();
         }
+        final Configuration configuredJsonFactory = conf.getChild(JSON_FACTORY, false);
+        if (configuredJsonFactory != null) {
+            this.jsonFactory = configuredJsonFactory.getValue().trim();
+        }
+        final Configuration configuredBufferRecycler = conf.getChild(BUFFER_RECYCLER, false);
+        if (configuredBufferRecycler != null) {
+            this.bufferRecycler = configuredBufferRecycler.getAttribute("type", THREAD_LOCAL);
+            this.bufferRecyclerSize = configuredBufferRecycler.getAttributeAsInteger("size", DEFAULT_RECYCLER_SIZE);
+            if (!THREAD_LOCAL.equals(bufferRecycler) && !SHARED.equals(bufferRecycler)
+                    && !BOUNDED.equals(bufferRecycler)) {
+                throw new ConfigurationException("Unknown buffer recycler type: " + bufferRecycler,
+                        configuredBufferRecycler);
+            }
+            if (!THREAD_LOCAL.equals(bufferRecycler) && bufferRecyclerSize <= 0) {
+                throw new ConfigurationException("The size of a pooled buffer recycler has to be positive",
+                        configuredBufferRecycler);
+            }
+            if (!THREAD_LOCAL.equals(bufferRecycler) && jsonFactory != null) {
+                throw new ConfigurationException(
+                        "A pooled buffer recycler is supported only by the default JSON factory",
+                        configuredBufferRecycler);
+            }
+        }
+        final Configuration configuredPropertyAccess = conf.getChild(PROPERTY_ACCESS, false);
+        if (configuredPropertyAccess != null) {
+            this.propertyAccess = configuredPropertyAccess.getValue(REFLECTION).trim();
+        }
+        this.executorConf = conf.getChild(JsonExecutors.EXECUTOR, false);
     }
 
     @Override
     public void initialize() throws Exception {
-        mapper = new ObjectMapper(null, null, null);// add configurable JsonFactory,.. later?
+        mapper = new ObjectMapper(initFactory(), null, null);
 
         initAnnotationInspectors();
 
         initFeatures();
 
+        initPropertyAccess();
+
         initDefaultTyping();
 
         getLogger().info("setting date format to:" + dateFormat);
@@ -664,7 +1676,17 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
             mapper.configure(SerializationFeature.FLUSH_AFTER_WRITE_VALUE, true);
         }
 
-        mapper.setDateFormat(new SimpleDateFormat(dateFormat));
+        SimpleDateFormat simpleDateFormat = new SimpleDateFormat(dateFormat);
+        if (dateZone != null) {
+            simpleDateFormat.setTimeZone(TimeZone.getTimeZone(dateZone));
+        }
+        mapper.setDateFormat(simpleDateFormat);
+        if (JAVA_TIME.equals(dateFormatType)) {
+            getLogger().info("formatting dates by java.time");
+            mapper.registerModule(new DateTimeModule());
+            setDateTimeFormatter(DateTimeModule.formatter(dateFormat,
+                    (dateZone != null) ? dateZone : ZoneId.systemDefault()));
+        }
 
         if (escapeCharsGlobal) {
             mapper.getFactory().setCharacterEscapes(characterEscapes);
@@ -688,10 +1710,18 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
             }
         });
         cacheService = new CacheService(primary);
+        readerWriterCache = new ReaderWriterCache();
         if (cacheService instanceof LogEnabled) {
             cacheService.enableLogging(getLogger().getChildLogger(cacheService.getClass().getSimpleName()));
             getLogger().info("setting cacheService logger: " + cacheService.getClass().getSimpleName());
         }
+        getLogger().info("filter cache maxEntries: " + filterCacheMaxEntries + ", timeToLive (s): " + filterCacheTimeToLive);
+        cacheService.setLimits(filterCacheMaxEntries, filterCacheTimeToLive * 1000);
+        // writers are built with the compiled filter
+        cacheService.addEvictionListener((key, filter) -> readerWriterCache.removeWriterWithFilter(filter));
+
+        asyncService = new AsyncJsonService(this, JsonExecutors.fromConfiguration(executorConf));
+        getLogger().info("async executor: " + asyncService.getExecutor());
 
         if (useJsonPath) {
             // set it before runtime
@@ -707,6 +1737,83 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
         }
     }
 
+    /**
+     * Avalon component lifecycle method, shuts down the configured executor.
+     */
+    @Override
+    public void dispose() {
+        if (asyncService != null) {
+            JsonExecutors.shutdown(asyncService.getExecutor());
+        }
+    }
+
+    /**
+     * @return the asynchronous facade running on the configured executor
+     */
+    @Override
+    public AsyncJsonService async() {
+        return asyncService;
+    }
+
+    /**
+     * @return the configured factory, a {@link PooledJsonFactory} if a pooled
+     *         buffer recycler is configured or null for the default JSON factory
+     *         of the mapper
+     * @throws InstantiationException if the factory is not on the class path
+     */
+    private JsonFactory initFactory() throws InstantiationException {
+        if (jsonFactory == null) {
+            if (SHARED.equals(bufferRecycler)) {
+                getLogger().info("buffer recycler: " + SHARED + ", size: " + bufferRecyclerSize);
+                return new PooledJsonFactory(PooledBufferRecycler.shared(bufferRecyclerSize));
+            } else if (BOUNDED.equals(bufferRecycler)) {
+                getLogger().info("buffer recycler: " + BOUNDED + ", size: " + bufferRecyclerSize);
+                return new PooledJsonFactory(PooledBufferRecycler.bounded(bufferRecyclerSize));
+            }
+            return null;
+        }
+        String factoryClass = SMILE.equals(jsonFactory) ? SMILE_FACTORY
+                : CBOR.equals(jsonFactory) ? CBOR_FACTORY : jsonFactory;
+        try {
+            JsonFactory factory = (JsonFactory) Class.forName(factoryClass).getConstructor().newInstance();
+            getLogger().info("json factory: " + factoryClass + ", format: " + factory.getFormatName());
+            return factory;
+        } catch (Exception | LinkageError e) {
+            throw new InstantiationException(
+                    "JsonMapperService: Error instantiating " + factoryClass + " for " + JSON_FACTORY);
+        }
+    }
+
+    /**
+     * Registers the module generating the property accessors, which is loaded by
+     * name, as it is an optional dependency. The generated accessors replace the
+     * reflective ones of the bean properties, the properties themselves are still
+     * found by the annotation introspectors, so filters and mixins apply.
+     * 
+     * @throws InstantiationException if the module is not on the class path
+     */
+    private void initPropertyAccess() throws InstantiationException {
+        if (REFLECTION.equals(propertyAccess)) {
+            return;
+        }
+        String moduleClass = AFTERBURNER.equals(propertyAccess) ? AFTERBURNER_MODULE
+                : BLACKBIRD.equals(propertyAccess) ? BLACKBIRD_MODULE : propertyAccess;
+        try {
+            mapper.registerModule((Module) Class.forName(moduleClass).getConstructor().newInstance());
+        } catch (Exception | LinkageError e) {
+            throw new InstantiationException(
+                    "JsonMapperService: Error instantiating " + moduleClass + " for " + PROPERTY_ACCESS);
+        }
+        getLogger().info("property access by module: " + moduleClass);
+    }
+
+    /**
+     * @return the configured property access, e.g. {@link #AFTERBURNER}
+     */
+    public String getPropertyAccess() {
+        return propertyAccess;
+    }
+
     private void initDefaultTyping() {
         if (defaultTypeDefs != null && defaultTypeDefs.length == 2) {
             DefaultTyping defaultTyping = DefaultTyping.valueOf(defaultTypeDefs[0]);
@@ -840,7 +1947,17 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
         }
     }
 
+    /**
+     * The mapper may be changed by the caller, the cached serializers are flushed 
+     * with the next call, which requests to clean the cache.
+     * 
+     * @return the object mapper
+     */
     public ObjectMapper getMapper() {
+        if (cacheService != null) {
+            cacheService.invalidateSerializers();
+            readerWriterCache.clear();
+        }
         return mapper;
     }
 
@@ -848,6 +1965,20 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
         this.mapper = mapper;
     }
 
+    /**
+     * @return the cache of readers, writers and types, providing hit and miss counters
+     */
+    public ReaderWriterCache getReaderWriterCache() {
+        return readerWriterCache;
+    }
+
+    /**
+     * @return the cache of registered and compiled filters
+     */
+    public CacheService getCacheService() {
+        return cacheService;
+    }
+
     public boolean isCacheFilters() {
         return cacheFilters;
     }
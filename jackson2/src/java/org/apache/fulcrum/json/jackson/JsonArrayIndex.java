@@ -0,0 +1,170 @@
+package org.apache.fulcrum.json.jackson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonParseException;
+
+/**
+ * Boundaries of the elements of a top level JSON array in UTF-8, found by a
+ * structural scan, which only tracks strings and nesting. The content of the
+ * elements is validated, when they are bound.
+ *
+ * @author gk
+ * @version $Id$
+ */
+final class JsonArrayIndex {
+
+    private int[] starts = new int[1024];
+
+    private int[] ends = new int[1024];
+
+    private int size = 0;
+
+    private JsonArrayIndex() {
+    }
+
+    /**
+     * Scans the remaining bytes of the buffer, its position is not changed.
+     *
+     * @param src the buffer containing a JSON array
+     * @return the boundaries of the elements
+     * @throws JsonParseException if the buffer does not contain an array or ends
+     *                            within it
+     */
+    static JsonArrayIndex scan(ByteBuffer src) throws JsonParseException {
+        JsonArrayIndex index = new JsonArrayIndex();
+        int limit = src.limit();
+        int pos = src.position();
+        while (pos < limit && isWhitespace(src.get(pos))) {
+            pos++;
+        }
+        if (pos >= limit || src.get(pos) != '[') {
+            throw new JsonParseException(null, "Expected a JSON array at position " + pos);
+        }
+        int depth = 0;
+        int elementStart = -1;
+        int lastContent = -1;
+        boolean afterComma = false;
+        for (int i = pos + 1; i < limit; i++) {
+            byte b = src.get(i);
+            if (isWhitespace(b)) {
+                continue;
+            }
+            if (elementStart < 0 && b != ',' && b != ']') {
+                elementStart = i;
+            }
+            switch (b) {
+            case '"':
+                i = skipString(src, i + 1, limit);
+                break;
+            case '{':
+            case '[':
+                depth++;
+                break;
+            case '}':
+            case ']':
+                if (depth == 0) {
+                    if (elementStart >= 0) {
+                        index.add(elementStart, lastContent + 1);
+                    } else if (afterComma) {
+                        throw new JsonParseException(null, "Missing array element at position " + i);
+                    }
+                    return index;
+                }
+                depth--;
+                break;
+            case ',':
+                if (depth == 0) {
+                    if (elementStart < 0) {
+                        throw new JsonParseException(null, "Missing array element at position " + i);
+                    }
+                    index.add(elementStart, lastContent + 1);
+                    elementStart = -1;
+                    afterComma = true;
+                    continue;
+                }
+                break;
+            default:
+                break;
+            }
+            lastContent = i;
+        }
+        throw new JsonParseException(null, "Unexpected end-of-input within the JSON array");
+    }
+
+    /**
+     * @param src   the buffer
+     * @param pos   the position after the opening quote
+     * @param limit the limit of the buffer
+     * @return the position of the closing quote
+     * @throws JsonParseException if the string is not terminated
+     */
+    private static int skipString(ByteBuffer src, int pos, int limit) throws JsonParseException {
+        for (int i = pos; i < limit; i++) {
+            byte b = src.get(i);
+            if (b == '\\') {
+                i++;
+            } else if (b == '"') {
+                return i;
+            }
+        }
+        throw new JsonParseException(null, "Unexpected end-of-input within a JSON string");
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private void add(int start, int end) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    /**
+     * @return the number of elements
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param element the index of the element
+     * @return the position of the first byte of the element
+     */
+    int start(int element) {
+        return starts[element];
+    }
+
+    /**
+     * @param element the index of the element
+     * @return the position after the last byte of the element
+     */
+    int end(int element) {
+        return ends[element];
+    }
+}
@@ -0,0 +1,189 @@
+package org.apache.fulcrum.json.jackson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * Push style decoder based on the non-blocking parser: chunks of UTF-8 encoded
+ * JSON are fed as they arrive and each completed value is passed to the
+ * consumer, without buffering the whole input.
+ *
+ * The tokens of a value are collected in a {@link TokenBuffer} until the value
+ * is complete, only then the value is bound. Root level values may be
+ * concatenated or separated by white space, e.g. JSON Lines. If array elements
+ * are decoded, the elements of root level arrays are passed one by one.
+ *
+ * A decoder is not thread safe, the chunks of one input are expected to be fed
+ * in order.
+ *
+ * @author gk
+ * @version $Id$
+ *
+ * @param <T> the type of the values
+ */
+public class JsonFeedDecoder<T> implements Closeable {
+
+    private final ObjectReader reader;
+
+    private final JsonParser parser;
+
+    private final ByteArrayFeeder feeder;
+
+    private final Consumer<? super T> consumer;
+
+    private final boolean elements;
+
+    // nesting level of the parser, including an unwrapped root array
+    private int depth = 0;
+
+    private boolean inRootArray = false;
+
+    private TokenBuffer value;
+
+    private long count = 0;
+
+    JsonFeedDecoder(ObjectReader reader, Consumer<? super T> consumer, boolean elements) throws IOException {
+        this.reader = reader;
+        this.parser = reader.createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.consumer = consumer;
+        this.elements = elements;
+    }
+
+    /**
+     * @param chunk the next bytes of the input
+     * @throws IOException if the input is not valid JSON or binding fails
+     */
+    public void feed(byte[] chunk) throws IOException {
+        feed(chunk, 0, chunk.length);
+    }
+
+    /**
+     * The chunk is parsed before returning, the array may be reused afterwards.
+     *
+     * @param chunk  the array containing the next bytes of the input
+     * @param offset the offset of the bytes
+     * @param len    the number of bytes
+     * @throws IOException if the input is not valid JSON or binding fails
+     */
+    public void feed(byte[] chunk, int offset, int len) throws IOException {
+        if (len == 0) {
+            return;
+        }
+        feeder.feedInput(chunk, offset, offset + len);
+        decode();
+    }
+
+    /**
+     * Feeds the remaining bytes of the buffer and advances its position. Only
+     * the content of direct or read only buffers is copied.
+     *
+     * @param chunk the buffer containing the next bytes of the input
+     * @throws IOException if the input is not valid JSON or binding fails
+     */
+    public void feed(ByteBuffer chunk) throws IOException {
+        int len = chunk.remaining();
+        if (chunk.hasArray()) {
+            feed(chunk.array(), chunk.arrayOffset() + chunk.position(), len);
+            chunk.position(chunk.limit());
+        } else {
+            byte[] bytes = new byte[len];
+            chunk.get(bytes);
+            feed(bytes, 0, len);
+        }
+    }
+
+    /**
+     * Signals the end of the input and passes the last value, if it was not
+     * terminated yet, e.g. a root level number.
+     *
+     * @throws IOException if the input ends within a value
+     */
+    public void endOfInput() throws IOException {
+        feeder.endOfInput();
+        decode();
+        if (value != null || depth > 0) {
+            throw new JsonEOFException(parser, null, "Unexpected end-of-input within a JSON value");
+        }
+    }
+
+    /**
+     * @return the number of values passed to the consumer
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        value = null;
+        parser.close();
+    }
+
+    private void decode() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (elements && depth == 0 && token == JsonToken.START_ARRAY) {
+                inRootArray = true;
+                depth++;
+                continue;
+            }
+            if (inRootArray && depth == 1 && token == JsonToken.END_ARRAY) {
+                inRootArray = false;
+                depth--;
+                continue;
+            }
+            if (value == null) {
+                value = new TokenBuffer(parser);
+            }
+            value.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+            if (depth == (inRootArray ? 1 : 0)) {
+                publish();
+            }
+        }
+    }
+
+    private void publish() throws IOException {
+        TokenBuffer tokens = value;
+        value = null;
+        T result;
+        try (JsonParser tokenParser = tokens.asParser(parser.getCodec())) {
+            result = reader.readValue(tokenParser);
+        }
+        count++;
+        consumer.accept(result);
+    }
+}
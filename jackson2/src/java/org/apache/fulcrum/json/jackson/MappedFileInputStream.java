@@ -0,0 +1,110 @@
+package org.apache.fulcrum.json.jackson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file by memory mapped regions of its {@link FileChannel}. The parser
+ * copies only its own small input buffer, neither the file content nor a
+ * string of it is kept on the heap. Files larger than a region (and larger
+ * than 2 GB) are mapped region by region.
+ *
+ * @author gk
+ * @version $Id$
+ */
+final class MappedFileInputStream extends InputStream {
+
+    static final long DEFAULT_REGION_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+
+    private final long size;
+
+    private final long regionSize;
+
+    // file position of the next region
+    private long position = 0;
+
+    private MappedByteBuffer region;
+
+    MappedFileInputStream(Path path) throws IOException {
+        this(path, DEFAULT_REGION_SIZE);
+    }
+
+    MappedFileInputStream(Path path, long regionSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.regionSize = regionSize;
+    }
+
+    /**
+     * @return <code>false</code>, if the end of the file is reached
+     * @throws IOException if mapping the next region fails
+     */
+    private boolean nextRegion() throws IOException {
+        if (region != null && region.hasRemaining()) {
+            return true;
+        }
+        if (position >= size) {
+            return false;
+        }
+        long length = Math.min(regionSize, size - position);
+        region = channel.map(MapMode.READ_ONLY, position, length);
+        position += length;
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return nextRegion() ? region.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!nextRegion()) {
+            return -1;
+        }
+        int count = Math.min(len, region.remaining());
+        region.get(bytes, off, count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        long remaining = ((region != null) ? region.remaining() : 0) + size - position;
+        return (int) Math.min(remaining, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        region = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,217 @@
+package org.apache.fulcrum.json.jackson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.fasterxml.jackson.core.util.BufferRecycler;
+
+/**
+ * Buffer recycler shared by all threads. Jackson recycles its buffers per
+ * thread by default, which does not pool anything, if each task runs on a new
+ * (virtual) thread. The buffers of each kind are kept in a lock-free pool
+ * instead, so a released buffer is reused by any thread.
+ *
+ * @author gk
+ * @version $Id$
+ */
+final class PooledBufferRecycler extends BufferRecycler {
+
+    private static final int BYTE_BUFFER_KINDS = BYTE_BASE64_CODEC_BUFFER + 1;
+
+    private static final int CHAR_BUFFER_KINDS = CHAR_NAME_COPY_BUFFER + 1;
+
+    private final Pool<byte[]>[] byteBuffers;
+
+    private final Pool<char[]>[] charBuffers;
+
+    @SuppressWarnings("unchecked")
+    private PooledBufferRecycler(int size, boolean slots) {
+        // the buffer arrays of the parent are not used
+        super(0, 0);
+        if (size <= 0) {
+            throw new IllegalArgumentException("The size of the pool has to be positive: " + size);
+        }
+        byteBuffers = new Pool[BYTE_BUFFER_KINDS];
+        for (int i = 0; i < BYTE_BUFFER_KINDS; i++) {
+            byteBuffers[i] = slots ? new BoundedPool<>(size) : new SharedPool<>(size);
+        }
+        charBuffers = new Pool[CHAR_BUFFER_KINDS];
+        for (int i = 0; i < CHAR_BUFFER_KINDS; i++) {
+            charBuffers[i] = slots ? new BoundedPool<>(size) : new SharedPool<>(size);
+        }
+    }
+
+    /**
+     * @param size the maximum number of kept buffers of each kind, further
+     *             released buffers are dropped
+     * @return a recycler keeping the buffers in lock-free deques, which take
+     *         and return a buffer in constant time
+     */
+    static PooledBufferRecycler shared(int size) {
+        return new PooledBufferRecycler(size, false);
+    }
+
+    /**
+     * @param size the maximum number of kept buffers of each kind, further
+     *             released buffers are dropped
+     * @return a recycler keeping the buffers in a fixed number of slots, which
+     *         are scanned, suited for small sizes
+     */
+    static PooledBufferRecycler bounded(int size) {
+        return new PooledBufferRecycler(size, true);
+    }
+
+    @Override
+    public byte[] allocByteBuffer(int ix, int minSize) {
+        int size = Math.max(minSize, byteBufferLength(ix));
+        byte[] buffer = byteBuffers[ix].poll();
+        return (buffer == null || buffer.length < size) ? balloc(size) : buffer;
+    }
+
+    @Override
+    public void releaseByteBuffer(int ix, byte[] buffer) {
+        byteBuffers[ix].offer(buffer);
+    }
+
+    @Override
+    public char[] allocCharBuffer(int ix, int minSize) {
+        int size = Math.max(minSize, charBufferLength(ix));
+        char[] buffer = charBuffers[ix].poll();
+        return (buffer == null || buffer.length < size) ? calloc(size) : buffer;
+    }
+
+    @Override
+    public void releaseCharBuffer(int ix, char[] buffer) {
+        charBuffers[ix].offer(buffer);
+    }
+
+    /**
+     * @return the number of pooled buffers of all kinds
+     */
+    int size() {
+        int size = 0;
+        for (Pool<byte[]> pool : byteBuffers) {
+            size += pool.size();
+        }
+        for (Pool<char[]> pool : charBuffers) {
+            size += pool.size();
+        }
+        return size;
+    }
+
+    private interface Pool<T> {
+        /**
+         * @return a pooled buffer or null
+         */
+        T poll();
+
+        /**
+         * @param buffer the buffer to be reused
+         */
+        void offer(T buffer);
+
+        int size();
+    }
+
+    /**
+     * Deque, the most recently released buffer is reused first. The number of
+     * buffers is counted, as the size of the deque is not constant time.
+     */
+    private static final class SharedPool<T> implements Pool<T> {
+        private final ConcurrentLinkedDeque<T> buffers = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger count = new AtomicInteger();
+        private final int maxSize;
+
+        SharedPool(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public T poll() {
+            T buffer = buffers.pollFirst();
+            if (buffer != null) {
+                count.decrementAndGet();
+            }
+            return buffer;
+        }
+
+        @Override
+        public void offer(T buffer) {
+            // reserve a place, the buffer is dropped, if the pool is full
+            if (count.incrementAndGet() > maxSize) {
+                count.decrementAndGet();
+                return;
+            }
+            buffers.offerFirst(buffer);
+        }
+
+        @Override
+        public int size() {
+            return count.get();
+        }
+    }
+
+    /**
+     * Fixed number of slots, which are taken and filled by compare and set.
+     */
+    private static final class BoundedPool<T> implements Pool<T> {
+        private final AtomicReferenceArray<T> slots;
+
+        BoundedPool(int size) {
+            slots = new AtomicReferenceArray<>(size);
+        }
+
+        @Override
+        public T poll() {
+            for (int i = 0; i < slots.length(); i++) {
+                if (slots.get(i) != null) {
+                    T buffer = slots.getAndSet(i, null);
+                    if (buffer != null) {
+                        return buffer;
+                    }
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void offer(T buffer) {
+            for (int i = 0; i < slots.length(); i++) {
+                if (slots.get(i) == null && slots.compareAndSet(i, null, buffer)) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (int i = 0; i < slots.length(); i++) {
+                if (slots.get(i) != null) {
+                    size++;
+                }
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.apache.fulcrum.json.jackson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.BufferRecycler;
+import com.fasterxml.jackson.databind.MappingJsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * JSON factory, which takes the buffers of its parsers and generators from a
+ * {@link PooledBufferRecycler} shared by all threads instead of a thread local
+ * recycler.
+ *
+ * @author gk
+ * @version $Id$
+ */
+public class PooledJsonFactory extends MappingJsonFactory {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient BufferRecycler recycler;
+
+    PooledJsonFactory(BufferRecycler recycler) {
+        super();
+        this.recycler = recycler;
+    }
+
+    private PooledJsonFactory(PooledJsonFactory src, ObjectMapper mapper) {
+        super(src, mapper);
+        this.recycler = src.recycler;
+    }
+
+    @Override
+    public BufferRecycler _getBufferRecycler() {
+        return recycler;
+    }
+
+    @Override
+    public JsonFactory copy() {
+        return new PooledJsonFactory(this, null);
+    }
+}
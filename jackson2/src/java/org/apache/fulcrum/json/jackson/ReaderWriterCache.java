@@ -0,0 +1,445 @@
+package org.apache.fulcrum.json.jackson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.lang.reflect.Type;
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.SerializerFactory;
+
+/**
+ * Bounded cache of {@link ObjectReader}s, {@link ObjectWriter}s (by view, type, filter or date format) and resolved
+ * {@link JavaType}s of a mapper. Readers and writers are immutable and thread
+ * safe, they are reused as long as the mapper, its configurations,
+ * factories and serializer provider are not replaced, which is checked on
+ * every lookup. Changes, which do not replace the configuration (e.g.
+ * mixins), require to call {@link #clear()}.
+ * 
+ * Writers with a filter are built by a {@link #filterMapper(ObjectMapper)} of
+ * the mapper, which provides the class of each bean as filter id. The mapper
+ * itself is not changed, serialization without a filter does not look up
+ * filters.
+ * 
+ * Each cache is a {@link BoundedCache}, if it is full, the least frequently
+ * used entries are evicted, so that new frequently used entries are cached
+ * too.
+ * 
+ * @author gk
+ * @version $Id$
+ */
+public class ReaderWriterCache {
+
+    /** default maximum number of entries of each of the caches */
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private final int maxEntries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private volatile MapperState state;
+
+    // guards replacing the state, not a monitor to be usable on virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public ReaderWriterCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param maxEntries maximum number of entries of each of the caches,
+     *                   unbounded if not positive
+     */
+    public ReaderWriterCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param mapper the mapper
+     * @param type   the type, may be null
+     * @return the reader for the type
+     */
+    public ObjectReader readerFor(ObjectMapper mapper, Class<?> type) {
+        MapperState current = validate(mapper);
+        return lookup(current.readers, (type != null) ? type : Void.class,
+                k -> (type != null) ? mapper.readerFor(type) : mapper.reader());
+    }
+
+    /**
+     * @param mapper the mapper
+     * @param type   the resolved type
+     * @return the reader for the type
+     */
+    public ObjectReader readerFor(ObjectMapper mapper, JavaType type) {
+        MapperState current = validate(mapper);
+        return lookup(current.readers, type, k -> mapper.readerFor(type));
+    }
+
+    /**
+     * @param mapper the mapper
+     * @param type   the type reference
+     * @return the reader for the type
+     */
+    public ObjectReader readerFor(ObjectMapper mapper, TypeReference<?> type) {
+        return readerFor(mapper, constructType(mapper, type));
+    }
+
+    /**
+     * @param mapper the mapper
+     * @param view   the view class
+     * @return the writer for the view
+     */
+    public ObjectWriter writerWithView(ObjectMapper mapper, Class<?> view) {
+        MapperState current = validate(mapper);
+        return lookup(current.viewWriters, view, k -> mapper.writerWithView(view));
+    }
+
+    /**
+     * @param mapper the mapper
+     * @param type   the root type of the values to be serialized
+     * @return the writer for the type
+     */
+    public ObjectWriter writerFor(ObjectMapper mapper, TypeReference<?> type) {
+        return writerFor(mapper, constructType(mapper, type));
+    }
+
+    /**
+     * @param mapper the mapper
+     * @param type   the root type of the values to be serialized
+     * @return the writer for the type
+     */
+    public ObjectWriter writerFor(ObjectMapper mapper, JavaType type) {
+        MapperState current = validate(mapper);
+        return lookup(current.typeWriters, type, k -> mapper.writerFor(type));
+    }
+
+    /**
+     * @param mapper the mapper
+     * @param filter a filter provider, which is reused, e.g. a compiled filter
+     *               of the filter cache
+     * @return the writer with the filter
+     */
+    public ObjectWriter writerWithFilter(ObjectMapper mapper, FilterProvider filter) {
+        MapperState current = validate(mapper);
+        return lookup(current.filterWriters, filter, k -> current.filterMapper().writer(filter));
+    }
+
+    /**
+     * The filter mapper shares the configuration, factories and the generator
+     * factory of the mapper, but has its own serializer cache, as the filter
+     * ids are captured by the serializers. It provides the class of each bean,
+     * which is not annotated with {@link JsonFilter}, as filter id, see
+     * {@link org.apache.fulcrum.json.jackson.filters.ClassFilterProvider}. It
+     * is replaced together with the cached writers.
+     * 
+     * @param mapper the mapper
+     * @return the mapper to build writers with a filter provider
+     */
+    public ObjectMapper filterMapper(ObjectMapper mapper) {
+        return validate(mapper).filterMapper();
+    }
+
+    /**
+     * The date format is set as {@link SimpleDateFormat} and as
+     * {@link java.time.format.DateTimeFormatter} attribute of the
+     * {@link DateTimeModule}, which is used instead, if the module is
+     * registered.
+     * 
+     * @param mapper  the mapper
+     * @param pattern the date pattern
+     * @param zone    the zone of the dates
+     * @return the writer with the date format
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public ObjectWriter writerWithDateFormat(ObjectMapper mapper, String pattern, ZoneId zone) {
+        MapperState current = validate(mapper);
+        return lookup(current.dateWriters, Arrays.asList(pattern, zone),
+                k -> mapper.writerWithView(Object.class).with(simpleDateFormat(pattern, zone))
+                        .withAttribute(DateTimeModule.DATE_TIME_FORMATTER, DateTimeModule.formatter(pattern, zone)));
+    }
+
+    /**
+     * @see #writerWithDateFormat(ObjectMapper, String, ZoneId)
+     * 
+     * @param mapper  the mapper
+     * @param type    the type
+     * @param pattern the date pattern
+     * @param zone    the zone of the dates
+     * @return the reader for the type with the date format
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public ObjectReader readerWithDateFormat(ObjectMapper mapper, Class<?> type, String pattern, ZoneId zone) {
+        MapperState current = validate(mapper);
+        return lookup(current.readers, Arrays.asList(type, pattern, zone),
+                k -> mapper.readerFor(type)
+                        .with(mapper.getDeserializationConfig().with(simpleDateFormat(pattern, zone)))
+                        .withAttribute(DateTimeModule.DATE_TIME_FORMATTER, DateTimeModule.formatter(pattern, zone)));
+    }
+
+    private static SimpleDateFormat simpleDateFormat(String pattern, ZoneId zone) {
+        // cloned by Jackson for each call
+        SimpleDateFormat dateFormat = new SimpleDateFormat(pattern);
+        dateFormat.setTimeZone(TimeZone.getTimeZone(zone));
+        return dateFormat;
+    }
+
+    /**
+     * @param filter the filter provider, which is not used anymore
+     */
+    public void removeWriterWithFilter(FilterProvider filter) {
+        MapperState current = state;
+        if (current != null) {
+            current.filterWriters.remove(filter);
+        }
+    }
+
+    /**
+     * @param mapper the mapper
+     * @param type   the type reference
+     * @return the resolved type
+     */
+    public JavaType constructType(ObjectMapper mapper, TypeReference<?> type) {
+        MapperState current = validate(mapper);
+        Type key = type.getType();
+        return lookup(current.types, key, k -> mapper.getTypeFactory().constructType(type));
+    }
+
+    /**
+     * @param mapper          the mapper
+     * @param collectionClass the collection class
+     * @param elementType     the element class
+     * @return the resolved collection type
+     */
+    @SuppressWarnings("rawtypes")
+    public JavaType constructCollectionType(ObjectMapper mapper, Class<? extends java.util.Collection> collectionClass,
+            Class<?> elementType) {
+        MapperState current = validate(mapper);
+        return lookup(current.types, Arrays.asList("collection", collectionClass, elementType),
+                k -> mapper.getTypeFactory().constructCollectionType(collectionClass, elementType));
+    }
+
+    /**
+     * @param mapper     the mapper
+     * @param mapClass   the map class
+     * @param keyClass   the key class
+     * @param valueClass the value class
+     * @return the resolved map type
+     */
+    @SuppressWarnings("rawtypes")
+    public JavaType constructMapType(ObjectMapper mapper, Class<? extends Map> mapClass, Class<?> keyClass,
+            Class<?> valueClass) {
+        MapperState current = validate(mapper);
+        return lookup(current.types, Arrays.asList("map", mapClass, keyClass, valueClass),
+                k -> mapper.getTypeFactory().constructMapType(mapClass, keyClass, valueClass));
+    }
+
+    /**
+     * @param mapper         the mapper
+     * @param parametrized   the generic class
+     * @param parameterClass the type parameter
+     * @return the resolved type
+     */
+    public JavaType constructParametricType(ObjectMapper mapper, Class<?> parametrized, Class<?> parameterClass) {
+        MapperState current = validate(mapper);
+        return lookup(current.types, Arrays.asList("parametric", parametrized, parameterClass),
+                k -> mapper.getTypeFactory().constructParametricType(parametrized, parameterClass));
+    }
+
+    private <V> V lookup(Map<Object, V> cache, Object key, Function<Object, V> factory) {
+        V value = cache.get(key);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        return cache.computeIfAbsent(key, factory);
+    }
+
+    /**
+     * Replaces the state with its caches, if the mapper, its configurations or
+     * factories were replaced since the entries were cached. Entries built
+     * concurrently from the former state are added to its caches, which are not
+     * used anymore.
+     * 
+     * @return the current state of the mapper
+     */
+    private MapperState validate(ObjectMapper mapper) {
+        MapperState current = state;
+        if (current == null || !current.isValid(mapper)) {
+            lock.lock();
+            try {
+                current = state;
+                if (current == null || !current.isValid(mapper)) {
+                    current = new MapperState(mapper, maxEntries);
+                    state = current;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Removes all cached entries, required after changing the mapper
+     * configuration in place, e.g. adding mixins.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            state = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of cached readers, writers and types
+     */
+    public int size() {
+        MapperState current = state;
+        return (current != null) ? current.size() : 0;
+    }
+
+    /**
+     * @return number of lookups, which found a cached entry
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of lookups, which had to build a new entry
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ReaderWriterCache [size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses() + "]";
+    }
+
+    /**
+     * The parts of the mapper, which are captured by readers and writers, and
+     * the caches of the readers and writers built from them.
+     */
+    private static final class MapperState {
+        private final Map<Object, ObjectReader> readers;
+        private final Map<Object, ObjectWriter> viewWriters;
+        private final Map<Object, ObjectWriter> typeWriters;
+        private final Map<Object, ObjectWriter> filterWriters;
+        private final Map<Object, ObjectWriter> dateWriters;
+        private final Map<Object, JavaType> types;
+
+        private final ObjectMapper mapper;
+        private final SerializationConfig serializationConfig;
+        private final SerializerFactory serializerFactory;
+        private final SerializerProvider serializerProvider;
+        private final DeserializationConfig deserializationConfig;
+        private final DeserializationContext deserializationContext;
+        private volatile ObjectMapper filterMapper;
+
+        MapperState(ObjectMapper mapper, int maxEntries) {
+            this.readers = new BoundedCache<>(maxEntries, 0);
+            this.viewWriters = new BoundedCache<>(maxEntries, 0);
+            this.typeWriters = new BoundedCache<>(maxEntries, 0);
+            this.filterWriters = new BoundedCache<>(maxEntries, 0);
+            this.dateWriters = new BoundedCache<>(maxEntries, 0);
+            this.types = new BoundedCache<>(maxEntries, 0);
+            this.mapper = mapper;
+            this.serializationConfig = mapper.getSerializationConfig();
+            this.serializerFactory = mapper.getSerializerFactory();
+            this.serializerProvider = mapper.getSerializerProvider();
+            this.deserializationConfig = mapper.getDeserializationConfig();
+            this.deserializationContext = mapper.getDeserializationContext();
+        }
+
+        boolean isValid(ObjectMapper current) {
+            return mapper == current && serializationConfig == current.getSerializationConfig()
+                    && serializerFactory == current.getSerializerFactory()
+                    && serializerProvider == current.getSerializerProvider()
+                    && deserializationConfig == current.getDeserializationConfig()
+                    && deserializationContext == current.getDeserializationContext();
+        }
+
+        int size() {
+            return readers.size() + viewWriters.size() + typeWriters.size() + filterWriters.size()
+                    + dateWriters.size() + types.size();
+        }
+
+        ObjectMapper filterMapper() {
+            ObjectMapper filtering = filterMapper;
+            if (filtering == null) {
+                // concurrent calls may build equal copies
+                filtering = new ObjectMapper(mapper.getFactory(), null, null);
+                filtering.setSerializerFactory(serializerFactory);
+                if (serializerProvider instanceof DefaultSerializerProvider) {
+                    // keeps e.g. the null value serializer
+                    filtering.setSerializerProvider(((DefaultSerializerProvider) serializerProvider).copy());
+                }
+                filtering.setConfig(serializationConfig.with(AnnotationIntrospector
+                        .pair(serializationConfig.getAnnotationIntrospector(), new ClassFilterIdIntrospector())));
+                filterMapper = filtering;
+            }
+            return filtering;
+        }
+    }
+
+    /**
+     * Provides the class of a bean as filter id, if no other introspector
+     * provides one.
+     */
+    private static final class ClassFilterIdIntrospector extends NopAnnotationIntrospector {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Object findFilterId(Annotated ac) {
+            if (ac instanceof AnnotatedClass && !ac.hasAnnotation(JsonFilter.class)) {
+                return ac.getRawType();
+            }
+            return null;
+        }
+    }
+}
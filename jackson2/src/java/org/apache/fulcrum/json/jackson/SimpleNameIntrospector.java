@@ -22,6 +22,7 @@ package org.apache.fulcrum.json.jackson;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.avalon.framework.logger.LogEnabled;
 import org.apache.avalon.framework.logger.Logger;
@@ -53,6 +54,10 @@ public class SimpleNameIntrospector extends NopAnnotationIntrospector implements
     private List<String> externalFilterIncludeClasses = new CopyOnWriteArrayList<>();
     // is used only for filtering by class
     private AtomicBoolean isExludeType = new AtomicBoolean(false);
+    // incremented if the filtered or external filter classes change
+    private final AtomicInteger generation = new AtomicInteger();
+    // decisions per class, not serialized
+    private transient volatile ClassValue<ClassDecision> decisions;
     
     private static Logger logger;
 
@@ -64,29 +69,20 @@ public class SimpleNameIntrospector extends NopAnnotationIntrospector implements
     public Boolean isIgnorableType(AnnotatedClass ac) {
         Boolean isIgnorable = super.isIgnorableType(ac);
         if (isIgnorable == null || !isIgnorable) {
-            if (getIsExludeType()) { // could be removed, if cleaning after call ?
-                if (!externalFilterExcludeClasses.isEmpty()
-                        && externalFilterExcludeClasses.contains(ac.getName())) {
+            Class<?> targetClazz = ac.getRawType();
+            if (targetClazz != null) {
+                ClassDecision decision = decisionFor(targetClazz);
+                // include filtering not yet used
+                if (getIsExludeType() ? decision.excluded : decision.notIncluded) {
                     isIgnorable = true;
                 }
-            } else {
-                // not yet used
-                if (!externalFilterIncludeClasses.isEmpty()
-                        && !externalFilterIncludeClasses.contains(ac.getName())) {
-                        try {
-                            Class.forName(ac.getName());
-                            isIgnorable = true;
-                        } catch (ClassNotFoundException e) {
-                            // no clazz ignore, could NOT ignore as no filterable clazz
-                        }
-                }
             }
         }
         return isIgnorable;
     }
     /**
      * @return Object Filtering on properties returns an object, if
-     *         {@link #filteredClasses} contains the class provided. The
+     *         {@link #filteredClasses} contains the class provided or a parent or child class of it. The
      *         filter itself currently is {@link SimpleFilterProvider}.
      */
     @Override
@@ -96,34 +92,70 @@ public class SimpleNameIntrospector extends NopAnnotationIntrospector implements
         // Object id = super.findFilterId(ac);
         // but use simple class name if not
         if (id == null) {
-            String name = ac.getName();
             Class<?> targetClazz = ac.getRawType();
-            if (!filteredClasses.isEmpty()
-                    && filteredClasses.contains(targetClazz)
-                    ) {
-                logger.debug("filter applying to " +name);
-                id = name;
-            } else {
-                // check if target class is a child from filter class -> apply filter 
-                for (Class<?> filterClazz : filteredClasses) {
-                    // the currently checked instance of type targetClazz is a child of the filter class filterClazz ->  filter child 
-                    if (filterClazz.isAssignableFrom(targetClazz)) {
-                        logger.debug("filter applying to parent " +filterClazz +" matching child class "+name );
-                        id = name;
-                        break;
-                    }
-                    // the currently checked instance of type targetClazz is a parent of the filter class filterClazz -> filter parent
-                    if (targetClazz.isAssignableFrom(filterClazz)) {
-                        logger.debug("filter applying to child " +filterClazz+" matching parent class "+name);
-                        id = name;
-                        break;
-                    }
-                }
+            if (targetClazz != null) {
+                id = decisionFor(targetClazz).filterId;
             }
         }
         return id;
     }
 
+    /**
+     * The decisions are computed once per class and registration state, the
+     * cost of introspection does not depend on the number of filtered classes.
+     * 
+     * @param targetClazz the introspected class
+     * @return the current decision for the class
+     */
+    private ClassDecision decisionFor(Class<?> targetClazz) {
+        ClassValue<ClassDecision> classDecisions = decisions;
+        if (classDecisions == null) {
+            classDecisions = new ClassValue<ClassDecision>() {
+                @Override
+                protected ClassDecision computeValue(Class<?> type) {
+                    return computeDecision(type);
+                }
+            };
+            decisions = classDecisions;
+        }
+        ClassDecision decision = classDecisions.get(targetClazz);
+        if (decision.generation != generation.get()) {
+            classDecisions.remove(targetClazz);
+            decision = classDecisions.get(targetClazz);
+        }
+        return decision;
+    }
+
+    private ClassDecision computeDecision(Class<?> targetClazz) {
+        // read the generation first, a concurrent change leaves the decision outdated
+        int currentGeneration = generation.get();
+        String name = targetClazz.getName();
+        String filterId = null;
+        for (Class<?> filterClazz : filteredClasses) {
+            // the target class is the filter class or a child of it -> filter child,
+            // or a parent of it -> filter parent
+            if (filterClazz.isAssignableFrom(targetClazz) || targetClazz.isAssignableFrom(filterClazz)) {
+                logger.debug("filter applying to " + name + " matching filter class " + filterClazz);
+                filterId = name;
+                break;
+            }
+        }
+        boolean excluded = externalFilterExcludeClasses.contains(name);
+        boolean notIncluded = !externalFilterIncludeClasses.isEmpty() && !externalFilterIncludeClasses.contains(name);
+        return new ClassDecision(currentGeneration, filterId, excluded, notIncluded);
+    }
+
+    /**
+     * Outdates all cached decisions, has to be called after changing the
+     * filtered or external filter classes.
+     */
+    private void filtersChanged() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * @return the filtered classes, which should be changed only by the setter and remove methods
+     */
     public List<Class<?>> getFilteredClasses() {
         return filteredClasses;
     }
@@ -131,6 +163,7 @@ public class SimpleNameIntrospector extends NopAnnotationIntrospector implements
     public void setFilteredClass(Class<?> filteredClass) {
         if (!filteredClasses.contains(filteredClass)) {
             filteredClasses.add(filteredClass);
+            filtersChanged();
         }
     }
 
@@ -139,6 +172,7 @@ public class SimpleNameIntrospector extends NopAnnotationIntrospector implements
         for (int i = 0; i < classes.length; i++) {
             if (!filteredClasses.contains(classes[i])) {
                 filteredClasses.add(classes[i]);
+                filtersChanged();
             }
 //            if (classes[i].getSuperclass() != null) {
 //                Class superClazz = classes[i].getSuperclass();
@@ -150,8 +184,8 @@ public class SimpleNameIntrospector extends NopAnnotationIntrospector implements
     }
 
     public void removeFilteredClass(Class<?> filteredClass) {
-            if (filteredClasses.contains(filteredClass)) {
-                filteredClasses.remove(filteredClass);
+            if (filteredClasses.remove(filteredClass)) {
+                filtersChanged();
             }
     }
     
@@ -161,13 +195,14 @@ public class SimpleNameIntrospector extends NopAnnotationIntrospector implements
             if (!externalFilterExcludeClasses.contains(classes[i].getName())) {
 
                 externalFilterExcludeClasses.add(classes[i].getName());
+                filtersChanged();
             }
         }
     }
     
     public void removeExternalFilterExcludeClass(Class<?> externalFilterClass) {
-        if (externalFilterExcludeClasses.contains(externalFilterClass.getName())) {
-            externalFilterExcludeClasses.remove(externalFilterClass.getName());
+        if (externalFilterExcludeClasses.remove(externalFilterClass.getName())) {
+            filtersChanged();
         }
     }
     
@@ -177,13 +212,14 @@ public class SimpleNameIntrospector extends NopAnnotationIntrospector implements
             if (!externalFilterIncludeClasses.contains(classes[i].getName())) {
 
                 externalFilterIncludeClasses.add(classes[i].getName());
+                filtersChanged();
             }
         }
     }
     
     public void removeExternalFilterIncludeClasses(Class<?> externalFilterClass) {
-        if (externalFilterIncludeClasses.contains(externalFilterClass.getName())) {
-            externalFilterIncludeClasses.remove(externalFilterClass.getName());
+        if (externalFilterIncludeClasses.remove(externalFilterClass.getName())) {
+            filtersChanged();
         }
     }
     
@@ -198,4 +234,22 @@ public class SimpleNameIntrospector extends NopAnnotationIntrospector implements
         SimpleNameIntrospector.logger = logger;        
     }
 
-}
\ No newline at end of file
+    /**
+     * Immutable result of filtering a class.
+     */
+    private static final class ClassDecision {
+        final int generation;
+        // the class name, if the class is filtered by filteredClasses
+        final String filterId;
+        final boolean excluded;
+        final boolean notIncluded;
+
+        ClassDecision(int generation, String filterId, boolean excluded, boolean notIncluded) {
+            this.generation = generation;
+            this.filterId = filterId;
+            this.excluded = excluded;
+            this.notIncluded = notIncluded;
+        }
+    }
+
+}
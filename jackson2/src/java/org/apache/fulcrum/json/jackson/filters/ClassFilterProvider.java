@@ -0,0 +1,207 @@
+package org.apache.fulcrum.json.jackson.filters;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+
+/**
+ * Immutable filter provider carrying the complete filter state of a single
+ * serialization call. It is applied with
+ * {@link com.fasterxml.jackson.databind.ObjectMapper#writer(FilterProvider)},
+ * so that neither the mapper nor the introspector have to be changed and
+ * filtered calls may run in parallel.
+ * 
+ * Expects the filter id to be the class of the serialized bean, which is
+ * provided by the filter mapper of the
+ * {@link org.apache.fulcrum.json.jackson.ReaderWriterCache}. A
+ * filter is applied, if the bean class is one of the filter classes, a child
+ * or a parent of it. Properties of excluded types are removed from all beans.
+ * 
+ * @author gk
+ * @version $Id$
+ */
+public class ClassFilterProvider extends FilterProvider {
+
+    private final Class<?>[] filterClasses;
+
+    private final FilterProvider delegate;
+
+    /** applied to matching beans */
+    private final PropertyFilter matchedFilter;
+
+    /** applied to all other beans, may be null */
+    private final PropertyFilter unmatchedFilter;
+
+    private ClassFilterProvider(Class<?>[] filterClasses, FilterProvider delegate,
+            PropertyFilter propertyFilter, Class<?>[] excludedTypes) {
+        this.filterClasses = filterClasses;
+        this.delegate = delegate;
+        if (excludedTypes != null && excludedTypes.length > 0) {
+            this.matchedFilter = new ExcludeTypesFilter(excludedTypes, propertyFilter);
+            this.unmatchedFilter = new ExcludeTypesFilter(excludedTypes, null);
+        } else {
+            this.matchedFilter = propertyFilter;
+            this.unmatchedFilter = null;
+        }
+    }
+
+    /**
+     * @param propertyFilter the property filter for the filter classes, may be
+     *                       null
+     * @param filterClasses  the classes the property filter is applied to
+     *                       including their parents and children
+     * @param excludedTypes  property types to be removed from all beans, may be
+     *                       null
+     * @return the provider for a single call
+     */
+    public static ClassFilterProvider forFilter(PropertyFilter propertyFilter, Class<?>[] filterClasses,
+            Class<?>[] excludedTypes) {
+        return new ClassFilterProvider(filterClasses, null, propertyFilter, excludedTypes);
+    }
+
+    /**
+     * Compiles the filter specification into a provider.
+     * 
+     * @param key the filter specification
+     * @return the provider, which could be reused for all calls with an equal key
+     */
+    public static ClassFilterProvider forKey(FilterKey key) {
+        String[] attributes = key.getAttributes().toArray(new String[0]);
+        PropertyFilter propertyFilter = null;
+        if (key.isInclude()) {
+            propertyFilter = SimpleBeanPropertyFilter.filterOutAllExcept(attributes);
+        } else if (attributes.length > 0) {
+            propertyFilter = SimpleBeanPropertyFilter.serializeAllExcept(attributes);
+        }
+        return forFilter(propertyFilter, new Class<?>[] { key.getFilterClass(), key.getSrcClass() },
+                key.getExcludedTypes().toArray(new Class<?>[0]));
+    }
+
+    /**
+     * Wraps a filter provider, which expects class names as filter ids, e.g. a
+     * {@link com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider}.
+     * 
+     * @param delegate      the filter provider resolving the class names
+     * @param filterClasses the classes, which should be filtered
+     * @return the provider for a single call
+     */
+    public static ClassFilterProvider forProvider(FilterProvider delegate, Class<?>... filterClasses) {
+        return new ClassFilterProvider(filterClasses, delegate, null, null);
+    }
+
+    @Override
+    public PropertyFilter findPropertyFilter(Object filterId, Object valueToFilter) {
+        if (!(filterId instanceof Class)) {
+            // annotated or explicitly registered filter id
+            return (delegate != null) ? delegate.findPropertyFilter(filterId, valueToFilter) : matchedFilter;
+        }
+        Class<?> targetClazz = (Class<?>) filterId;
+        if (matches(targetClazz)) {
+            return (delegate != null) ? delegate.findPropertyFilter(targetClazz.getName(), valueToFilter)
+                    : matchedFilter;
+        }
+        // types are only ignored for bean properties
+        return Map.class.isAssignableFrom(targetClazz) ? null : unmatchedFilter;
+    }
+
+    /**
+     * @param targetClazz the class of the serialized bean
+     * @return <code>true</code> if the class is one of the filter classes, a
+     *         child or a parent of it.
+     */
+    private boolean matches(Class<?> targetClazz) {
+        for (Class<?> filterClazz : filterClasses) {
+            if (filterClazz.isAssignableFrom(targetClazz) || targetClazz.isAssignableFrom(filterClazz)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @deprecated only {@link #findPropertyFilter(Object, Object)} is supported.
+     */
+    @Deprecated
+    @Override
+    public BeanPropertyFilter findFilter(Object filterId) {
+        throw new UnsupportedOperationException("Access to deprecated filters not supported");
+    }
+
+    @Override
+    public String toString() {
+        return "ClassFilterProvider [filterClasses=" + Arrays.toString(filterClasses) + ", delegate=" + delegate
+                + ", matchedFilter=" + matchedFilter + "]";
+    }
+
+    /**
+     * Removes properties of the excluded types, like ignorable types, and
+     * applies the property filter, if any, to the others.
+     */
+    static class ExcludeTypesFilter extends SimpleBeanPropertyFilter {
+
+        private final Class<?>[] excludedTypes;
+
+        private final PropertyFilter next;
+
+        ExcludeTypesFilter(Class<?>[] excludedTypes, PropertyFilter next) {
+            this.excludedTypes = excludedTypes;
+            this.next = next;
+        }
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator jgen, SerializerProvider provider,
+                PropertyWriter writer) throws Exception {
+            if (!include(writer)) {
+                return;
+            }
+            if (next != null) {
+                next.serializeAsField(pojo, jgen, provider, writer);
+            } else {
+                writer.serializeAsField(pojo, jgen, provider);
+            }
+        }
+
+        @Override
+        protected boolean include(BeanPropertyWriter writer) {
+            Class<?> type = writer.getType().getRawClass();
+            for (Class<?> excludedType : excludedTypes) {
+                if (excludedType.equals(type)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        protected boolean include(PropertyWriter writer) {
+            return (writer instanceof BeanPropertyWriter) ? include((BeanPropertyWriter) writer) : true;
+        }
+    }
+}
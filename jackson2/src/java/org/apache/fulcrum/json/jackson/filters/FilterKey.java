@@ -0,0 +1,121 @@
+package org.apache.fulcrum.json.jackson.filters;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Immutable key of a compiled filter, the complete specification of a filter
+ * call: the filter class, the class of the serialized object, the mode
+ * (include only or exclude the attributes), the attributes and the excluded
+ * types. The order of attributes and excluded types is not significant.
+ * 
+ * @author gk
+ * @version $Id$
+ */
+public final class FilterKey {
+
+    private final Class<?> filterClass;
+
+    private final Class<?> srcClass;
+
+    private final boolean include;
+
+    private final Set<String> attributes;
+
+    private final Set<Class<?>> excludedTypes;
+
+    private final int hashCode;
+
+    /**
+     * @param filterClass   the filter class
+     * @param srcClass      the class of the serialized object
+     * @param include       <code>true</code> if only the attributes are
+     *                      serialized, <code>false</code> if the attributes are
+     *                      excluded
+     * @param attributes    the filtered attributes, may be null
+     * @param excludedTypes the property types to be excluded, may be null
+     */
+    public FilterKey(Class<?> filterClass, Class<?> srcClass, boolean include, String[] attributes,
+            Class<?>[] excludedTypes) {
+        this.filterClass = filterClass;
+        this.srcClass = srcClass;
+        this.include = include;
+        this.attributes = (attributes != null) ? Collections.unmodifiableSet(new HashSet<>(Arrays.asList(attributes)))
+                : Collections.<String>emptySet();
+        this.excludedTypes = (excludedTypes != null)
+                ? Collections.unmodifiableSet(new HashSet<Class<?>>(Arrays.asList(excludedTypes)))
+                : Collections.<Class<?>>emptySet();
+        int result = filterClass.hashCode();
+        result = 31 * result + srcClass.hashCode();
+        result = 31 * result + Boolean.hashCode(include);
+        result = 31 * result + this.attributes.hashCode();
+        result = 31 * result + this.excludedTypes.hashCode();
+        this.hashCode = result;
+    }
+
+    public Class<?> getFilterClass() {
+        return filterClass;
+    }
+
+    public Class<?> getSrcClass() {
+        return srcClass;
+    }
+
+    public boolean isInclude() {
+        return include;
+    }
+
+    public Set<String> getAttributes() {
+        return attributes;
+    }
+
+    public Set<Class<?>> getExcludedTypes() {
+        return excludedTypes;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof FilterKey)) {
+            return false;
+        }
+        FilterKey other = (FilterKey) obj;
+        return hashCode == other.hashCode && include == other.include && filterClass.equals(other.filterClass)
+                && srcClass.equals(other.srcClass) && attributes.equals(other.attributes)
+                && excludedTypes.equals(other.excludedTypes);
+    }
+
+    @Override
+    public String toString() {
+        return "FilterKey [filterClass=" + filterClass.getName() + ", srcClass=" + srcClass.getName() + ", include="
+                + include + ", attributes=" + attributes + ", excludedTypes=" + excludedTypes + "]";
+    }
+}
@@ -0,0 +1,97 @@
+package org.apache.fulcrum.json.jackson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.fulcrum.json.JsonService;
+import org.apache.fulcrum.json.jackson.example.Bean;
+import org.apache.fulcrum.json.jackson.example.Rectangle;
+import org.apache.fulcrum.json.jackson.mixins.RectangleMixin;
+import org.apache.fulcrum.testcontainer.BaseUnit5Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+/**
+ * Jackson2 JSON Test with property access by the Blackbird module
+ * 
+ * @author gk
+ * @version $Id$
+ */
+@EnabledForJreRange(min = JRE.JAVA_11)
+public class BlackbirdMapperTest extends BaseUnit5Test {
+
+    private JsonService sc = null;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        setConfigurationFileName("src/test/BlackbirdComponentConfig.xml");
+        sc = (JsonService) this.lookup(JsonService.ROLE);
+        ((Jackson2MapperService) sc).setMixins(null, null);
+    }
+
+    @Test
+    public void testModuleRegistered() throws Exception {
+        Jackson2MapperService service = (Jackson2MapperService) sc;
+        assertEquals(Jackson2MapperService.BLACKBIRD, service.getPropertyAccess());
+        assertTrue(service.getMapper().getRegisteredModuleIds().stream()
+                .anyMatch(id -> id.toString().contains("Blackbird")));
+    }
+
+    @Test
+    public void testSerializeWithFilters() throws Exception {
+        Bean bean = new Bean();
+        bean.setName("joe");
+        bean.setAge(12);
+        assertEquals("{\"name\":\"joe\"}", sc.serializeOnlyFilter(bean, Bean.class, "name"));
+        assertTrue(!sc.serializeAllExceptFilter(bean, Bean.class, "name").contains("joe"));
+
+        Rectangle rectangle = new Rectangle(5, 10);
+        rectangle.setName("jim");
+        assertEquals("{\"w\":5,\"name\":\"jim\"}", sc.serializeOnlyFilter(rectangle, Rectangle.class, "w", "name"));
+        assertEquals("{\"w\":5,\"h\":10,\"name\":\"jim\",\"size\":50}", sc.ser(rectangle));
+    }
+
+    @Test
+    public void testSerializeWithMixin() throws Exception {
+        Rectangle rectangle = new Rectangle(5, 10);
+        rectangle.setName("jim");
+        sc.addAdapter("M4RMixin", Rectangle.class, RectangleMixin.class);
+        assertEquals("{\"width\":5}", sc.ser(rectangle));
+    }
+
+    @Test
+    public void testDeserialize() throws Exception {
+        List<Rectangle> rectangles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rectangles.add(new Rectangle(i, i * 2, "r" + i));
+        }
+        Rectangle[] result = sc.deSer(sc.ser(rectangles), Rectangle[].class);
+        assertEquals(10, result.length);
+        assertEquals(18, result[9].getH());
+        assertEquals("r9", result[9].getName());
+    }
+}
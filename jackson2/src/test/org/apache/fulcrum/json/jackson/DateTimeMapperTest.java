@@ -0,0 +1,93 @@
+package org.apache.fulcrum.json.jackson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.apache.fulcrum.json.JsonService;
+import org.apache.fulcrum.testcontainer.BaseUnit5Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Jackson2 JSON Test with dates formatted by java.time
+ *
+ * @author gk
+ * @version $Id$
+ */
+public class DateTimeMapperTest extends BaseUnit5Test {
+
+    private static final Instant JUNE_1 = Instant.parse("2021-06-01T00:00:00Z");
+
+    private JsonService sc = null;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        setConfigurationFileName("src/test/DateTimeComponentConfig.xml");
+        sc = (JsonService) this.lookup(JsonService.ROLE);
+    }
+
+    @Test
+    public void testSerializeDates() throws Exception {
+        // MM/dd/yyyy in UTC
+        Date date = Date.from(JUNE_1);
+        assertEquals("{\"date\":\"06/01/2021\"}", sc.ser(Collections.singletonMap("date", date)));
+        assertEquals(date, sc.deSer("\"06/01/2021\"", Date.class));
+        assertEquals("\"06/01/2021\"", sc.ser(JUNE_1));
+        assertEquals(JUNE_1, sc.deSer("\"06/01/2021\"", Instant.class));
+        // other java.time types in ISO-8601
+        LocalDateTime dateTime = LocalDateTime.of(2021, 6, 1, 12, 30);
+        assertEquals("\"2021-06-01T12:30:00\"", sc.ser(dateTime));
+        assertEquals(dateTime, sc.deSer("\"2021-06-01T12:30:00\"", LocalDateTime.class));
+        assertEquals(LocalDate.of(2021, 6, 1), sc.deSer("\"2021-06-01\"", LocalDate.class));
+    }
+
+    @Test
+    public void testSerWithDateFormat() throws Exception {
+        Jackson2MapperService service = (Jackson2MapperService) sc;
+        Date date = Date.from(JUNE_1);
+        ZoneId berlin = ZoneId.of("Europe/Berlin");
+        assertEquals("\"2021-06-01 02:00\"", service.serWithDateFormat(date, "yyyy-MM-dd HH:mm", berlin));
+        long misses = service.getReaderWriterCache().getMisses();
+        assertEquals("\"2021-06-01 02:00\"", service.serWithDateFormat(date, "yyyy-MM-dd HH:mm", berlin));
+        assertEquals(misses, service.getReaderWriterCache().getMisses());
+        assertEquals(date, service.deSerWithDateFormat("\"2021-06-01 02:00\"", Date.class, "yyyy-MM-dd HH:mm", berlin));
+        // the mapper is not changed
+        assertEquals("\"06/01/2021\"", sc.ser(date));
+    }
+
+    @Test
+    public void testSetDateFormat() throws Exception {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("Europe/Berlin"));
+        sc.setDateFormat(dateFormat);
+        assertEquals("\"2021-06-01 02:00\"", sc.ser(Date.from(JUNE_1)));
+        assertEquals(Date.from(JUNE_1), sc.deSer("\"2021-06-01 02:00\"", Date.class));
+    }
+}
@@ -19,17 +19,60 @@ package org.apache.fulcrum.json.jackson;
  * under the License.
  */
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.apache.avalon.framework.logger.Log4JLogger;
 import org.apache.avalon.framework.logger.Logger;
+import org.apache.fulcrum.json.AsyncJsonService;
+import org.apache.fulcrum.json.BatchResult;
+import org.apache.fulcrum.json.CloseableIterator;
+import org.apache.fulcrum.json.JsonExecutors;
 import org.apache.fulcrum.json.JsonService;
 import org.apache.fulcrum.json.jackson.example.Bean;
 import org.apache.fulcrum.json.jackson.example.Rectangle;
+import org.apache.fulcrum.json.jackson.example.TestClass;
+import org.apache.fulcrum.json.jackson.filters.FilterKey;
+import org.apache.fulcrum.json.jackson.mixins.RectangleMixin;
 import org.apache.fulcrum.testcontainer.BaseUnit5Test;
 import org.apache.log4j.LogManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+
 
 /**
  * More Jackson2 JSON Test
@@ -109,4 +152,613 @@ public class Jackson2MapperTest extends BaseUnit5Test {
                 "{\"w\":5,\"name\":\"jim\"}", filteredRectangle, "global Ser filtered Rectangle failed ");
     }
 
+    @Test
+    public void testSerializeFiltersInParallel() throws Exception {
+        Bean bean = new Bean();
+        bean.setName("joe");
+        bean.setAge(12);
+        Rectangle rectangle = new Rectangle(5, 10);
+        rectangle.setName("jim");
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tasks.add(() -> {
+                assertEquals("{\"name\":\"joe\"}", sc.serializeOnlyFilter(bean, Bean.class, "name"));
+                assertEquals("{\"age\":12}", sc.serializeOnlyFilter(bean, Bean.class, "age"));
+                assertEquals("{\"w\":5,\"name\":\"jim\"}",
+                        sc.serializeOnlyFilter(rectangle, Rectangle.class, "w", "name"));
+                // excluding String type is scoped to this call
+                assertEquals("{\"w\":5,\"h\":10,\"size\":50}", ((Jackson2MapperService) sc)
+                        .serializeAllExceptFilter(rectangle, new Class[] { Rectangle.class, String.class }, true));
+                assertEquals("{\"w\":5,\"h\":10,\"name\":\"jim\",\"size\":50}", sc.ser(rectangle));
+                return null;
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFilterKeepsCachedSerializers() throws Exception {
+        DefaultSerializerProvider provider = (DefaultSerializerProvider) ((Jackson2MapperService) sc).getMapper()
+                .getSerializerProvider();
+        Bean bean = new Bean();
+        bean.setName("joe");
+        bean.setAge(12);
+        // flushes once, as the mapper was requested
+        sc.ser(new TestClass("mytest"), true);
+        sc.ser(new Rectangle(5, 10));
+        int cachedSerializers = provider.cachedSerializersCount();
+        assertTrue(cachedSerializers > 0);
+
+        assertEquals("{\"name\":\"joe\"}", sc.serializeOnlyFilter(bean, Bean.class, "name"));
+        assertEquals("{\"age\":12}", sc.serializeAllExceptFilter(bean, Bean.class, "name", "profession"));
+        assertTrue(provider.cachedSerializersCount() >= cachedSerializers,
+                "serializers of unrelated types flushed by filter");
+
+        assertEquals("{\"name\":\"joe\"}", sc.serializeOnlyFilter(bean, Bean.class, true, "name"));
+        assertEquals("{\"age\":12}", sc.serializeAllExceptFilter(bean, Bean.class, true, "name", "profession"));
+
+        // a mixin still requires to flush
+        sc.addAdapter("M4RMixin", Rectangle.class, RectangleMixin.class);
+        assertEquals(0, ((DefaultSerializerProvider) ((Jackson2MapperService) sc).getMapper().getSerializerProvider())
+                .cachedSerializersCount());
+        assertEquals("{\"width\":5}", sc.ser(new Rectangle(5, 10)));
+    }
+
+    @Test
+    public void testReaderWriterCache() throws Exception {
+        ReaderWriterCache cache = ((Jackson2MapperService) sc).getReaderWriterCache();
+        String json = sc.ser(new Rectangle(5, 10), Rectangle.class);
+        sc.deSer(json, Rectangle.class);
+        long misses = cache.getMisses();
+        long hits = cache.getHits();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(json, sc.ser(new Rectangle(5, 10), Rectangle.class));
+            assertEquals(50, sc.deSer(json, Rectangle.class).getSize());
+        }
+        assertEquals(misses, cache.getMisses());
+        assertEquals(hits + 20, cache.getHits());
+        assertTrue(cache.size() >= 2);
+
+        // changing the configuration clears the cache
+        sc.addAdapter("M4RMixin", Rectangle.class, RectangleMixin.class);
+        assertEquals(0, cache.size());
+        sc.setDateFormat(new SimpleDateFormat("yyyy-MM-dd"));
+        sc.deSer(json, Rectangle.class);
+        assertEquals(misses + 1, cache.getMisses());
+    }
+
+    @Test
+    public void testSerWithDateFormat() throws Exception {
+        Jackson2MapperService service = (Jackson2MapperService) sc;
+        Date date = Date.from(Instant.parse("2021-06-01T00:00:00Z"));
+        ZoneId utc = ZoneId.of("UTC");
+        // by SimpleDateFormat
+        assertEquals("\"2021-06-01\"", service.serWithDateFormat(date, "yyyy-MM-dd", utc));
+        assertEquals(date, service.deSerWithDateFormat("\"2021-06-01\"", Date.class, "yyyy-MM-dd", utc));
+        assertEquals("\"" + new SimpleDateFormat("MM/dd/yyyy").format(date) + "\"", sc.ser(date));
+    }
+
+    @Test
+    public void testReaderWriterCacheAfterMapperChange() throws Exception {
+        Rectangle rectangle = new Rectangle(5, 10);
+        String json = sc.ser(rectangle, Rectangle.class);
+        // the changed mapper is applied after the next call cleaning the cache
+        ((Jackson2MapperService) sc).getMapper().addMixIn(Rectangle.class, RectangleMixin.class);
+        sc.ser(rectangle, true);
+        assertEquals("{\"width\":5}", sc.ser(rectangle, Rectangle.class));
+        assertEquals("{\"width\":5}", sc.ser(rectangle));
+        assertTrue(!json.equals(sc.ser(rectangle, Rectangle.class)));
+    }
+
+    @Test
+    public void testReaderWriterCacheSkipsStaleEntries() throws Exception {
+        ReaderWriterCache cache = new ReaderWriterCache();
+        ObjectMapper mapper = new ObjectMapper() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public ObjectWriter writerWithView(Class<?> serializationView) {
+                // the mapper is changed, while the writer is built
+                cache.clear();
+                return super.writerWithView(serializationView);
+            }
+        };
+        assertTrue(cache.writerWithView(mapper, Object.class) != null);
+        assertEquals(0, cache.size());
+        cache.writerFor(mapper, mapper.constructType(Rectangle.class));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testReaderWriterCacheEvictsColdEntries() throws Exception {
+        ReaderWriterCache cache = new ReaderWriterCache(4);
+        ObjectMapper mapper = new ObjectMapper();
+        for (Class<?> type : Arrays.asList(String.class, Integer.class, Long.class, Double.class)) {
+            cache.readerFor(mapper, type);
+        }
+        // inserted after the cache is full
+        cache.readerFor(mapper, Rectangle.class);
+        long misses = cache.getMisses();
+        long hits = cache.getHits();
+        List<Class<?>> coldTypes = Arrays.asList(Bean.class, TestClass.class, Date.class, Short.class, Byte.class,
+                Float.class, Boolean.class, Character.class);
+        for (Class<?> type : coldTypes) {
+            cache.readerFor(mapper, type);
+            cache.readerFor(mapper, Rectangle.class);
+            cache.readerFor(mapper, Rectangle.class);
+        }
+        assertEquals(misses + coldTypes.size(), cache.getMisses());
+        assertEquals(hits + 2 * coldTypes.size(), cache.getHits());
+        assertTrue(cache.size() <= 4);
+    }
+
+    @Test
+    public void testFilterCacheKeyedBySpecification() throws Exception {
+        CacheService cacheService = ((Jackson2MapperService) sc).getCacheService();
+        Bean bean = new Bean();
+        bean.setName("joe");
+        bean.setAge(12);
+        // not cleaning, the filters are kept in the cache
+        assertEquals("{\"name\":\"joe\"}", sc.serializeOnlyFilter(bean, Bean.class, false, "name"));
+        assertEquals("{\"age\":12}", sc.serializeOnlyFilter(bean, Bean.class, false, "age"));
+        assertEquals("{\"age\":12}", sc.serializeAllExceptFilter(bean, Bean.class, false, "name", "profession"));
+        int compiled = cacheService.getCompiledFilters().size();
+        for (int i = 0; i < 10; i++) {
+            assertEquals("{\"name\":\"joe\"}", sc.serializeOnlyFilter(bean, Bean.class, false, "name"));
+            assertEquals("{\"age\":12}", sc.serializeOnlyFilter(bean, Bean.class, false, "age"));
+        }
+        // same projection in another order is the same filter
+        assertEquals("{\"name\":\"joe\",\"age\":12}", sc.serializeOnlyFilter(bean, Bean.class, false, "age", "name"));
+        sc.serializeOnlyFilter(bean, Bean.class, false, "name", "age");
+        assertEquals(compiled + 1, cacheService.getCompiledFilters().size());
+    }
+
+    @Test
+    public void testFilterCacheEviction() throws Exception {
+        CacheService cacheService = ((Jackson2MapperService) sc).getCacheService();
+        ReaderWriterCache readerWriterCache = ((Jackson2MapperService) sc).getReaderWriterCache();
+        BoundedCache<?, ?> compiledFilters = (BoundedCache<?, ?>) cacheService.getCompiledFilters();
+        Bean bean = new Bean();
+        bean.setName("joe");
+        bean.setAge(12);
+        try {
+            cacheService.setLimits(2, 0);
+            long evictions = compiledFilters.getEvictions();
+            // frequently used
+            for (int i = 0; i < 5; i++) {
+                assertEquals("{\"name\":\"joe\"}", sc.serializeOnlyFilter(bean, Bean.class, false, "name"));
+            }
+            assertEquals("{\"age\":12}", sc.serializeOnlyFilter(bean, Bean.class, false, "age"));
+            assertEquals("{\"age\":12}", sc.serializeAllExceptFilter(bean, Bean.class, false, "name", "profession"));
+            assertEquals("{\"name\":\"joe\",\"age\":12}",
+                    sc.serializeOnlyFilter(bean, Bean.class, false, "name", "age"));
+            assertEquals(2, compiledFilters.size());
+            assertTrue(compiledFilters.getEvictions() >= evictions + 2);
+            assertTrue(compiledFilters.containsKey(new FilterKey(Bean.class, Bean.class, true, new String[] { "name" }, null)),
+                    "frequently used filter evicted");
+            assertTrue(readerWriterCache.size() <= 2, "writers of evicted filters not removed");
+            assertTrue(cacheService.getFilters().size() <= 2);
+
+            // expired filters are compiled again
+            cacheService.setLimits(2, 1);
+            Thread.sleep(5);
+            assertEquals("{\"name\":\"joe\"}", sc.serializeOnlyFilter(bean, Bean.class, false, "name"));
+            assertEquals(1, compiledFilters.entrySet().size());
+        } finally {
+            cacheService.setLimits(BoundedCache.DEFAULT_MAX_ENTRIES, 0);
+        }
+    }
+
+    @Test
+    public void testFilterEvictionKeepsIntrospectorRegistrations() throws Exception {
+        Jackson2MapperService service = (Jackson2MapperService) sc;
+        CacheService cacheService = service.getCacheService();
+        SimpleNameIntrospector introspector = (SimpleNameIntrospector) service.primary;
+        // registered by the user
+        introspector.setFilteredClass(Bean.class);
+        introspector.setExternalFilterExcludeClasses(Rectangle.class);
+        try {
+            cacheService.setLimits(1, 0);
+            long evictions = ((BoundedCache<?, ?>) cacheService.getCompiledFilters()).getEvictions();
+            cacheService.getCompiledFilter(new FilterKey(Bean.class, Bean.class, true, new String[] { "name" }, null));
+            cacheService.getCompiledFilter(new FilterKey(Bean.class, Bean.class, false, new String[] { "age" },
+                    new Class<?>[] { Rectangle.class }));
+            assertTrue(((BoundedCache<?, ?>) cacheService.getCompiledFilters()).getEvictions() > evictions);
+            assertTrue(introspector.getFilteredClasses().contains(Bean.class));
+            introspector.setIsExludeType(true);
+            assertEquals(Boolean.TRUE, introspector.isIgnorableType(service.getMapper().getSerializationConfig()
+                    .introspectClassAnnotations(Rectangle.class).getClassInfo()));
+        } finally {
+            introspector.setIsExludeType(false);
+            cacheService.setLimits(BoundedCache.DEFAULT_MAX_ENTRIES, 0);
+            introspector.removeFilteredClass(Bean.class);
+            introspector.removeExternalFilterExcludeClass(Rectangle.class);
+        }
+    }
+
+    @Test
+    public void testBoundedCacheConcurrentEviction() throws Exception {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(100, 0);
+        LongAdder evicted = new LongAdder();
+        cache.addEvictionListener((key, value) -> evicted.increment());
+        cache.put(-1, -1);
+        int threads = 8;
+        int keys = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t * keys;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < keys; i++) {
+                        // frequently used
+                        assertEquals(Integer.valueOf(-1), cache.get(-1));
+                        if (i % 2 == 0) {
+                            cache.put(offset + i, i);
+                        } else {
+                            cache.computeIfAbsent(offset + i, k -> k);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(cache.size() <= 100, "cache exceeds maximum: " + cache.size());
+        assertTrue(cache.containsKey(-1), "frequently used entry evicted");
+        assertEquals(threads * keys + 1, cache.size() + cache.getEvictions());
+        assertEquals(cache.getEvictions(), evicted.sum());
+    }
+
+    @Test
+    public void testSerializeToStream() throws Exception {
+        Bean bean = new Bean();
+        bean.setName("jo\u00eb");
+        bean.setAge(12);
+        String json = sc.ser(bean);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sc.ser(out, bean);
+        assertEquals(json, new String(out.toByteArray(), StandardCharsets.UTF_8));
+        // not closed
+        out.write(' ');
+
+        StringWriter writer = new StringWriter();
+        sc.ser(writer, new Rectangle(5, 10), Rectangle.class);
+        assertEquals(sc.ser(new Rectangle(5, 10), Rectangle.class), writer.toString());
+
+        out.reset();
+        sc.serializeOnlyFilter(out, bean, Bean.class, true, "name");
+        assertEquals("{\"name\":\"jo\u00eb\"}", new String(out.toByteArray(), StandardCharsets.UTF_8));
+        writer = new StringWriter();
+        sc.serializeAllExceptFilter(writer, bean, Bean.class, true, "name", "profession");
+        assertEquals("{\"age\":12}", writer.toString());
+    }
+
+    @Test
+    public void testDeserializeBytes() throws Exception {
+        Bean bean = new Bean();
+        bean.setName("jo\u00eb");
+        bean.setAge(12);
+        byte[] json = (" " + sc.ser(bean)).getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayInputStream in = new ByteArrayInputStream(json);
+        assertEquals("jo\u00eb", sc.deSer(in, Bean.class).getName());
+        assertEquals(12, sc.deSer(new StringReader(new String(json, StandardCharsets.UTF_8)), Bean.class).getAge());
+        assertEquals("jo\u00eb", sc.deSer(json, 1, json.length - 1, Bean.class).getName());
+        ByteBuffer buffer = ByteBuffer.wrap(json);
+        buffer.position(1);
+        assertEquals("jo\u00eb", sc.deSer(buffer, Bean.class).getName());
+        assertEquals(1, buffer.position());
+        ByteBuffer direct = ByteBuffer.allocateDirect(json.length);
+        direct.put(json).flip();
+        assertEquals("jo\u00eb", sc.deSer(direct, Bean.class).getName());
+        assertEquals(0, direct.position());
+
+        byte[] list = sc.ser(Arrays.asList(new Rectangle(5, 10), new Rectangle(3, 4))).getBytes(StandardCharsets.UTF_8);
+        Collection<Rectangle> rectangles = sc.deSerCollection(new ByteArrayInputStream(list),
+                new ArrayList<Rectangle>(), Rectangle.class);
+        assertEquals(2, rectangles.size());
+        assertEquals(10, rectangles.iterator().next().getH());
+        rectangles = sc.deSerCollection(ByteBuffer.wrap(list), new TypeReference<List<Rectangle>>() {}, Rectangle.class);
+        assertEquals(4, ((List<Rectangle>) rectangles).get(1).getH());
+    }
+
+    @Test
+    public void testDeserializeIterator() throws Exception {
+        List<Rectangle> rectangles = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rectangles.add(new Rectangle(i, i * 2));
+        }
+        byte[] json = sc.ser(rectangles).getBytes(StandardCharsets.UTF_8);
+        int count = 0;
+        try (CloseableIterator<Rectangle> elements = sc.deSerIterator(new ByteArrayInputStream(json), Rectangle.class)) {
+            while (elements.hasNext()) {
+                Rectangle rectangle = elements.next();
+                assertEquals(count * 2, rectangle.getH());
+                count++;
+            }
+        }
+        assertEquals(100, count);
+        try (Stream<Rectangle> elements = sc.deSerStream(new StringReader(new String(json, StandardCharsets.UTF_8)),
+                Rectangle.class)) {
+            assertEquals(99 * 100, elements.mapToInt(Rectangle::getH).sum());
+        }
+        // closing early
+        ByteArrayInputStream in = new ByteArrayInputStream(json);
+        try (CloseableIterator<Rectangle> elements = ((Jackson2MapperService) sc).deSerIterator(in,
+                new TypeReference<Rectangle>() {})) {
+            assertEquals(0, elements.next().getH());
+        }
+    }
+
+    @Test
+    public void testSerializeArrayWhileIterating() throws Exception {
+        Jackson2MapperService service = (Jackson2MapperService) sc;
+        List<Rectangle> rectangles = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rectangles.add(new Rectangle(i, i * 2));
+        }
+        String json = sc.ser(rectangles);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.serArray(out, IntStream.range(0, 100).mapToObj(i -> new Rectangle(i, i * 2)));
+        assertEquals(json, new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        StringWriter writer = new StringWriter();
+        service.serArray(writer, rectangles.iterator());
+        assertEquals(json, writer.toString());
+        writer = new StringWriter();
+        service.serArray(writer, rectangles.spliterator());
+        assertEquals(json, writer.toString());
+        writer = new StringWriter();
+        service.serArray(writer, Collections.emptyIterator());
+        assertEquals("[]", writer.toString());
+    }
+
+    @Test
+    public void testJsonLines() throws Exception {
+        List<Rectangle> rectangles = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rectangles.add(new Rectangle(i, i * 2));
+        }
+        StringWriter writer = new StringWriter();
+        sc.serLines(writer, rectangles.iterator());
+        assertEquals(sc.ser(rectangles.get(0)) + "\n" + sc.ser(rectangles.get(1)) + "\n" + sc.ser(rectangles.get(2))
+                + "\n", writer.toString());
+        int count = 0;
+        try (CloseableIterator<Rectangle> elements = sc.deSerLines(
+                new ByteArrayInputStream(writer.toString().getBytes(StandardCharsets.UTF_8)), Rectangle.class)) {
+            while (elements.hasNext()) {
+                assertEquals(count * 2, elements.next().getH());
+                count++;
+            }
+        }
+        assertEquals(3, count);
+        // lines of arrays are not unwrapped
+        try (CloseableIterator<int[]> elements = sc.deSerLines(new StringReader("[1,2]\n\n[3]\n"), int[].class)) {
+            assertEquals(2, elements.next().length);
+            assertEquals(1, elements.next().length);
+            assertTrue(!elements.hasNext());
+        }
+        StringWriter empty = new StringWriter();
+        sc.serLines(empty, Collections.emptyIterator());
+        assertEquals("", empty.toString());
+    }
+
+    @Test
+    public void testSerializeBatch() throws Exception {
+        Jackson2MapperService service = (Jackson2MapperService) sc;
+        List<Object> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Bean bean = new Bean();
+            bean.setName("joe" + i);
+            batch.add(bean);
+            batch.add(new Rectangle(i, i * 2));
+        }
+        List<String> json = service.serBatch(batch);
+        assertEquals(20, json.size());
+        for (int i = 0; i < batch.size(); i++) {
+            assertEquals(sc.ser(batch.get(i)), json.get(i));
+        }
+        List<String> filtered = service.serBatch(batch, Bean.class, true, "name");
+        assertEquals("{\"name\":\"joe3\"}", filtered.get(6));
+        // as with single objects the filter applies to the class of the source too
+        assertEquals(sc.serializeOnlyFilter(batch.get(7), Bean.class, true, "name"), filtered.get(7));
+        List<byte[]> bytes = service.serBatchAsBytes(batch, Bean.class, false, "name");
+        assertEquals(sc.serializeAllExceptFilter(batch.get(4), Bean.class, true, "name"),
+                new String(bytes.get(4), StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.serBatch(out, batch, Bean.class, true, "name");
+        String[] lines = out.toString("UTF-8").split("\n");
+        assertEquals(20, lines.length);
+        assertEquals(filtered.get(19), lines[19]);
+    }
+
+    @Test
+    public void testDeserializeArrayParallel() throws Exception {
+        Jackson2MapperService service = (Jackson2MapperService) sc;
+        List<Rectangle> rectangles = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            rectangles.add(new Rectangle(i, i * 2, "r[\"" + i + "\"],{"));
+        }
+        byte[] json = (" \n" + sc.ser(rectangles) + "\n").getBytes(StandardCharsets.UTF_8);
+        List<Rectangle> heap = service.deSerArrayParallel(ByteBuffer.wrap(json), Rectangle.class);
+        assertEquals(5000, heap.size());
+        assertEquals(4999 * 2, heap.get(4999).getH());
+        assertEquals("r[\"4999\"],{", heap.get(4999).getName());
+        ByteBuffer direct = ByteBuffer.allocateDirect(json.length).put(json);
+        direct.flip();
+        try (Stream<Rectangle> elements = service.deSerArrayStream(direct, Rectangle.class)) {
+            assertEquals(4999 * 5000, elements.mapToInt(Rectangle::getH).sum());
+        }
+        Path file = Files.createTempFile("rectangles", ".json");
+        try {
+            Files.write(file, json);
+            List<Rectangle> mapped = service.deSerArrayParallel(file, Rectangle.class);
+            assertEquals(heap.get(1234).getW(), mapped.get(1234).getW());
+        } finally {
+            Files.delete(file);
+        }
+        List<Object> values = service.deSerArrayParallel(ByteBuffer
+                .wrap(" [ 1 , \"2\",null,[3,\"]\"], {\"a\":[4]} ]".getBytes(StandardCharsets.UTF_8)), Object.class);
+        assertEquals(Arrays.asList(1, "2", null, Arrays.asList(3, "]"), Collections.singletonMap("a", Arrays.asList(4))),
+                values);
+        assertEquals(0, service.deSerArrayParallel(ByteBuffer.wrap("[ ]".getBytes(StandardCharsets.UTF_8)),
+                Integer.class).size());
+        assertThrows(IOException.class, () -> service.deSerArrayParallel(
+                ByteBuffer.wrap("[1,,2]".getBytes(StandardCharsets.UTF_8)), Integer.class));
+        assertThrows(IOException.class, () -> service.deSerArrayParallel(
+                ByteBuffer.wrap("[1,{\"a\":]".getBytes(StandardCharsets.UTF_8)), Integer.class));
+    }
+
+    @Test
+    public void testDeserializeAll() throws Exception {
+        List<Object> payloads = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String json = sc.ser(new Rectangle(i, i * 2));
+            payloads.add((i % 2 == 0) ? json : json.getBytes(StandardCharsets.UTF_8));
+        }
+        payloads.set(500, "{\"w\":");
+        BatchResult<Rectangle> result = sc.deSerAll(payloads, Rectangle.class);
+        assertEquals(1000, result.size());
+        assertEquals(999 * 2, result.get(999).getH());
+        assertEquals(Collections.singleton(500), result.getErrors().keySet());
+        assertTrue(result.getValues().get(500) == null);
+        assertThrows(IOException.class, () -> result.get(500));
+    }
+
+    @Test
+    public void testDeserializeAllOnExecutor() throws Exception {
+        List<Object> payloads = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            payloads.add(sc.ser(new Rectangle(i, i * 2)));
+        }
+        ExecutorService single = JsonExecutors.bounded(1, 10);
+        try {
+            AsyncJsonService async = new AsyncJsonService(sc, single);
+            // the chunks would wait behind the caller in the queue of the only thread
+            Future<BatchResult<Rectangle>> result = single.submit(() -> async.deSerAll(payloads, Rectangle.class));
+            assertEquals(99 * 2, result.get(10, TimeUnit.SECONDS).get(99).getH());
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDeserializeFedChunks() throws Exception {
+        Jackson2MapperService service = (Jackson2MapperService) sc;
+        List<Rectangle> rectangles = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rectangles.add(new Rectangle(i, i * 2));
+        }
+        byte[] json = sc.ser(rectangles).getBytes(StandardCharsets.UTF_8);
+        List<Rectangle> decoded = new ArrayList<>();
+        try (JsonFeedDecoder<Rectangle> decoder = service.deSerFeedElements(Rectangle.class, decoded::add)) {
+            for (int offset = 0; offset < json.length; offset += 7) {
+                decoder.feed(json, offset, Math.min(7, json.length - offset));
+                // elements are passed as soon as they are complete
+                assertTrue(decoded.size() <= offset / 10 + 1);
+            }
+            decoder.endOfInput();
+            assertEquals(100, decoder.getCount());
+        }
+        assertEquals(100, decoded.size());
+        assertEquals(99 * 2, decoded.get(99).getH());
+
+        List<Integer> numbers = new ArrayList<>();
+        try (JsonFeedDecoder<Integer> decoder = service.deSerFeed(Integer.class, numbers::add)) {
+            decoder.feed(ByteBuffer.wrap("1\n2".getBytes(StandardCharsets.UTF_8)));
+            decoder.feed(ByteBuffer.wrap("3\n4".getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer());
+            // the last number may continue in the next chunk
+            assertEquals(Arrays.asList(1, 23), numbers);
+            decoder.endOfInput();
+        }
+        assertEquals(Arrays.asList(1, 23, 4), numbers);
+
+        try (JsonFeedDecoder<Rectangle> decoder = service.deSerFeed(Rectangle.class, r -> {})) {
+            decoder.feed("{\"w\":1,".getBytes(StandardCharsets.UTF_8));
+            assertThrows(IOException.class, () -> decoder.endOfInput());
+        }
+    }
+
+    @Test
+    public void testDeserializeMappedFile() throws Exception {
+        Jackson2MapperService service = (Jackson2MapperService) sc;
+        List<Rectangle> rectangles = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rectangles.add(new Rectangle(i, i * 2));
+        }
+        Path file = Files.createTempFile("rectangles", ".json");
+        try {
+            Files.write(file, sc.ser(rectangles).getBytes(StandardCharsets.UTF_8));
+            Collection<Rectangle> read = service.deSerCollection(file, new ArrayList<Rectangle>(), Rectangle.class);
+            assertEquals(1000, read.size());
+            Rectangle[] array = service.deSer(file, Rectangle[].class);
+            assertEquals(999 * 2, array[999].getH());
+            try (CloseableIterator<Rectangle> elements = service.deSerIterator(file, Rectangle.class)) {
+                assertEquals(999 * 1000, elements.stream().mapToInt(Rectangle::getH).sum());
+            }
+            // regions smaller than the file
+            try (InputStream in = new MappedFileInputStream(file, 100)) {
+                assertEquals(1000, sc.deSer(in, Rectangle[].class).length);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testFilteredWritersKeepMapperUnchanged() throws Exception {
+        Jackson2MapperService service = (Jackson2MapperService) sc;
+        Bean bean = new Bean();
+        bean.setName("joe");
+        bean.setAge(12);
+        assertEquals("{\"name\":\"joe\"}", sc.serializeOnlyFilter(bean, Bean.class, true, "name"));
+        // the mapper provides no filter ids and keeps its filter provider
+        assertEquals(null, service.getMapper().getSerializationConfig().getFilterProvider());
+        AnnotatedClass beanClass = service.getMapper().getSerializationConfig().introspectClassAnnotations(Bean.class)
+                .getClassInfo();
+        assertEquals(null, service.getMapper().getSerializationConfig().getAnnotationIntrospector()
+                .findFilterId(beanClass));
+        assertTrue(sc.ser(bean).contains("\"age\":12"));
+        assertTrue(service.getReaderWriterCache().filterMapper(service.getMapper()) != service.getMapper());
+    }
+
+    @Test
+    public void testIntrospectorFilterIdsFollowRegistration() throws Exception {
+        Jackson2MapperService service = (Jackson2MapperService) sc;
+        SimpleNameIntrospector introspector = (SimpleNameIntrospector) service.primary;
+        AnnotatedClass beanClass = service.getMapper().getSerializationConfig().introspectClassAnnotations(Bean.class)
+                .getClassInfo();
+        assertEquals(null, introspector.findFilterId(beanClass));
+        introspector.setFilteredClass(Bean.class);
+        try {
+            assertEquals(Bean.class.getName(), introspector.findFilterId(beanClass));
+        } finally {
+            introspector.removeFilteredClass(Bean.class);
+        }
+        assertEquals(null, introspector.findFilterId(beanClass));
+
+        introspector.setExternalFilterExcludeClasses(Bean.class);
+        introspector.setIsExludeType(true);
+        try {
+            assertEquals(Boolean.TRUE, introspector.isIgnorableType(beanClass));
+        } finally {
+            introspector.removeExternalFilterExcludeClass(Bean.class);
+        }
+        assertTrue(introspector.isIgnorableType(beanClass) == null);
+        introspector.setIsExludeType(false);
+    }
+
 }
@@ -0,0 +1,106 @@
+package org.apache.fulcrum.json.jackson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.fulcrum.json.JsonService;
+import org.apache.fulcrum.json.jackson.example.Bean;
+import org.apache.fulcrum.json.jackson.example.Rectangle;
+import org.apache.fulcrum.json.jackson.mixins.RectangleMixin;
+import org.apache.fulcrum.testcontainer.BaseUnit5Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Jackson2 JSON Test with a configured {@link JsonFactory}
+ * 
+ * @author gk
+ * @version $Id$
+ */
+public class JsonFactoryMapperTest extends BaseUnit5Test {
+
+    private JsonService sc = null;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        setConfigurationFileName("src/test/JsonFactoryComponentConfig.xml");
+        sc = (JsonService) this.lookup(JsonService.ROLE);
+        ((Jackson2MapperService) sc).setMixins(null, null);
+    }
+
+    @Test
+    public void testFactoryConfigured() throws Exception {
+        assertTrue(((Jackson2MapperService) sc).getMapper().getFactory() instanceof CountingJsonFactory);
+    }
+
+    @Test
+    public void testSerializeAsBytes() throws Exception {
+        Jackson2MapperService service = (Jackson2MapperService) sc;
+        int generators = CountingJsonFactory.GENERATORS.get();
+        Rectangle rectangle = new Rectangle(5, 10, "jim");
+        byte[] bytes = service.serAsBytes(rectangle);
+        assertEquals(generators + 1, CountingJsonFactory.GENERATORS.get());
+        assertEquals(sc.ser(rectangle), new String(bytes, StandardCharsets.UTF_8));
+        assertEquals(10, sc.deSer(bytes, 0, bytes.length, Rectangle.class).getH());
+
+        Bean bean = new Bean();
+        bean.setName("joe");
+        bean.setAge(12);
+        assertEquals("{\"name\":\"joe\"}", new String(
+                service.serializeOnlyFilterAsBytes(bean, Bean.class, true, "name"), StandardCharsets.UTF_8));
+        assertEquals(sc.serializeAllExceptFilter(bean, Bean.class, true, "name"), new String(
+                service.serializeAllExceptFilterAsBytes(bean, Bean.class, true, "name"), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testSerializeAsBytesWithMixin() throws Exception {
+        Jackson2MapperService service = (Jackson2MapperService) sc;
+        Rectangle rectangle = new Rectangle(5, 10, "jim");
+        sc.addAdapter("M4RMixin", Rectangle.class, RectangleMixin.class);
+        assertEquals("{\"width\":5}", new String(service.serAsBytes(rectangle), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Counts the generators writing to streams
+     */
+    public static class CountingJsonFactory extends JsonFactory {
+
+        private static final long serialVersionUID = 1L;
+
+        static final AtomicInteger GENERATORS = new AtomicInteger();
+
+        @Override
+        public JsonGenerator createGenerator(OutputStream out, JsonEncoding enc) throws IOException {
+            GENERATORS.incrementAndGet();
+            return super.createGenerator(out, enc);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.apache.fulcrum.json.jackson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.apache.fulcrum.json.AsyncJsonService;
+import org.apache.fulcrum.json.JsonService;
+import org.apache.fulcrum.json.jackson.example.Bean;
+import org.apache.fulcrum.json.jackson.example.Rectangle;
+import org.apache.fulcrum.testcontainer.BaseUnit5Test;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.util.BufferRecycler;
+
+/**
+ * Jackson2 JSON Test with pooled buffer recyclers and a bounded executor
+ *
+ * @author gk
+ * @version $Id$
+ */
+public class PooledMapperTest extends BaseUnit5Test {
+
+    private JsonService lookupService(String configurationFileName) throws Exception {
+        setConfigurationFileName(configurationFileName);
+        return (JsonService) this.lookup(JsonService.ROLE);
+    }
+
+    @Test
+    public void testSharedBufferRecycler() throws Exception {
+        JsonService sc = lookupService("src/test/PooledComponentConfig.xml");
+        assertPooled(sc);
+
+        // further released buffers are dropped
+        PooledBufferRecycler shared = PooledBufferRecycler.shared(1);
+        byte[] first = shared.allocByteBuffer(BufferRecycler.BYTE_READ_IO_BUFFER);
+        byte[] second = shared.allocByteBuffer(BufferRecycler.BYTE_READ_IO_BUFFER);
+        shared.releaseByteBuffer(BufferRecycler.BYTE_READ_IO_BUFFER, first);
+        shared.releaseByteBuffer(BufferRecycler.BYTE_READ_IO_BUFFER, second);
+        assertEquals(1, shared.size());
+        assertSame(first, shared.allocByteBuffer(BufferRecycler.BYTE_READ_IO_BUFFER));
+        assertEquals(0, shared.size());
+        assertThrows(IllegalArgumentException.class, () -> PooledBufferRecycler.shared(0));
+    }
+
+    @Test
+    public void testBoundedBufferRecycler() throws Exception {
+        JsonService sc = lookupService("src/test/BoundedPoolComponentConfig.xml");
+        assertPooled(sc);
+
+        PooledBufferRecycler bounded = PooledBufferRecycler.bounded(1);
+        byte[] first = bounded.allocByteBuffer(BufferRecycler.BYTE_READ_IO_BUFFER);
+        byte[] second = bounded.allocByteBuffer(BufferRecycler.BYTE_READ_IO_BUFFER);
+        bounded.releaseByteBuffer(BufferRecycler.BYTE_READ_IO_BUFFER, first);
+        bounded.releaseByteBuffer(BufferRecycler.BYTE_READ_IO_BUFFER, second);
+        assertEquals(1, bounded.size());
+        assertSame(first, bounded.allocByteBuffer(BufferRecycler.BYTE_READ_IO_BUFFER));
+        // a pooled buffer, which is too small, is replaced
+        bounded.releaseByteBuffer(BufferRecycler.BYTE_READ_IO_BUFFER, first);
+        assertTrue(bounded.allocByteBuffer(BufferRecycler.BYTE_READ_IO_BUFFER, first.length + 1).length > first.length);
+        assertEquals(0, bounded.size());
+    }
+
+    @Test
+    public void testSerializeAsync() throws Exception {
+        JsonService sc = lookupService("src/test/PooledComponentConfig.xml");
+        AsyncJsonService async = sc.async();
+        assertTrue(async.getExecutor() instanceof ThreadPoolExecutor, "configured bounded executor");
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Bean bean = new Bean();
+            bean.setName("joe" + i);
+            futures.add((i % 2 == 0) ? async.serializeOnlyFilterAsync(bean, Bean.class, false, "name")
+                    : async.serializeAllExceptFilterAsync(bean, Bean.class, false, "name"));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        assertEquals("{\"name\":\"joe0\"}", futures.get(0).get());
+        assertTrue(!futures.get(1).get().contains("joe1"));
+        Rectangle rectangle = async.serAsync(new Rectangle(5, 10))
+                .thenCompose(json -> async.deSerAsync(json, Rectangle.class)).get();
+        assertEquals(10, rectangle.getH());
+        CompletableFuture<Rectangle> failed = async.deSerAsync("{\"w\":", Rectangle.class);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get());
+        assertTrue(e.getCause() instanceof IOException);
+    }
+
+    /**
+     * Released buffers are pooled and reused by calls of new threads.
+     */
+    private void assertPooled(JsonService sc) throws Exception {
+        Jackson2MapperService service = (Jackson2MapperService) sc;
+        assertTrue(service.getMapper().getFactory() instanceof PooledJsonFactory);
+        PooledBufferRecycler recycler = (PooledBufferRecycler) service.getMapper().getFactory()
+                ._getBufferRecycler();
+        Rectangle rectangle = new Rectangle(5, 10);
+        String json = sc.ser(rectangle);
+        sc.deSer(json, Rectangle.class);
+        service.serAsBytes(rectangle);
+        int pooled = recycler.size();
+        assertTrue(pooled > 0);
+        // a new thread per call reuses the released buffers
+        for (int i = 0; i < 10; i++) {
+            CompletableFuture<String> call = new CompletableFuture<>();
+            Thread thread = new Thread(() -> {
+                try {
+                    service.serAsBytes(rectangle);
+                    call.complete(sc.ser(sc.deSer(json, Rectangle.class)));
+                } catch (Exception e) {
+                    call.completeExceptionally(e);
+                }
+            });
+            thread.start();
+            assertEquals(json, call.get());
+            thread.join();
+        }
+        assertEquals(pooled, recycler.size());
+    }
+}